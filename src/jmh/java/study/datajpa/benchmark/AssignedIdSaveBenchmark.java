@@ -0,0 +1,79 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 식별자를 미리 할당한 새 엔티티 저장 처리량 (inserts/s)
+ * merge   : Persistable 적용 전 save() 와 같은 경로. id 가 있으면 준영속으로 보고 INSERT 전에 행마다 SELECT (before)
+ *           지금은 version 이 null 이면 하이버네이트가 새 엔티티로 보고 SELECT 를 생략하므로
+ *           version 을 채워서 (DTO 에서 옮겨 담은 엔티티처럼) 식별자로만 판단하던 예전 경로를 재현한다.
+ * persist : Persistable.isNew() 로 새 엔티티를 판단한 save(). INSERT 만 (after)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AssignedIdSaveBenchmark {
+
+    private static final int INSERTS_PER_TX = 100;
+
+    private final AtomicLong assignedId = new AtomicLong(1_000_000_000L); // 시퀀스 구간과 겹치지 않게
+
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate transactionTemplate;
+    private MemberRepository memberRepository;
+    private EntityManager em;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        memberRepository = context.getBean(MemberRepository.class);
+        em = SharedEntityManagerCreator.createSharedEntityManager(context.getBean(EntityManagerFactory.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(INSERTS_PER_TX)
+    public void merge() {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < INSERTS_PER_TX; i++) {
+                Member member = newMember(i);
+                member.setVersion(0L); // 준영속으로 판단 -> SELECT 후 없으면 INSERT
+                em.merge(member);
+            }
+        });
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(INSERTS_PER_TX)
+    public void persist() {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < INSERTS_PER_TX; i++) {
+                memberRepository.save(newMember(i));
+            }
+        });
+    }
+
+    private Member newMember(int i) {
+        Member member = new Member("member" + i, i);
+        member.setId(assignedId.incrementAndGet());
+        return member;
+    }
+}
@@ -0,0 +1,93 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.AuditingContext;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Member 저장당 Auditing 비용
+ * - perEntity / cached : 트랜잭션 하나(엔티티 ENTITIES_PER_TX 개)의 Auditing 값 준비 비용 (ns/엔티티, 8 스레드 동시 호출)
+ *                        기존 auditorProvider (엔티티마다 UUID.randomUUID() + LocalDateTime.now()) vs AuditingContext
+ *                        cached 는 트랜잭션 시작/종료를 매번 알려서 등록자를 트랜잭션마다 새로 만든다.
+ * - insertMembers / insertMembersWithoutAuditing : 실제 저장 처리량 (ns/insert), 뒤쪽은 AuditingContext.suspend() 로 끈 경우
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuditingBenchmark {
+
+    private static final int ENTITIES_PER_TX = 100;
+
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate transactionTemplate;
+    private MemberRepository memberRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        memberRepository = context.getBean(MemberRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @Threads(8)
+    @OperationsPerInvocation(ENTITIES_PER_TX)
+    public void perEntity(Blackhole bh) {
+        for (int i = 0; i < ENTITIES_PER_TX; i++) {
+            bh.consume(Optional.of(UUID.randomUUID().toString()));
+            bh.consume(LocalDateTime.now());
+        }
+    }
+
+    @Benchmark
+    @Threads(8)
+    @OperationsPerInvocation(ENTITIES_PER_TX)
+    public void cached(Blackhole bh) {
+        Object transaction = new Object();
+        AuditingContext.afterTransactionBegin(transaction);
+        for (int i = 0; i < ENTITIES_PER_TX; i++) {
+            bh.consume(AuditingContext.currentAuditor());
+            bh.consume(AuditingContext.currentTime());
+        }
+        AuditingContext.afterTransactionCompletion(transaction);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ENTITIES_PER_TX)
+    public void insertMembers() {
+        insert();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ENTITIES_PER_TX)
+    public void insertMembersWithoutAuditing() {
+        try (AuditingContext.Suspension ignored = AuditingContext.suspend()) {
+            insert();
+        }
+    }
+
+    private void insert() {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < ENTITIES_PER_TX; i++) {
+                memberRepository.save(new Member("member" + i, i));
+            }
+        });
+    }
+}
@@ -0,0 +1,34 @@
+package study.datajpa.benchmark;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.datajpa.DataJpaApplication;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 벤치마크용 애플리케이션 컨텍스트
+ * 웹 서버 없이 JPA 계층만 띄우고, 매번 새 인메모리 H2 를 사용한다.
+ * SQL 로그와 p6spy 는 측정값을 왜곡하므로 끈다.
+ */
+public final class BenchmarkContext {
+
+    private static final AtomicInteger DB_SEQ = new AtomicInteger();
+
+    private BenchmarkContext() {
+    }
+
+    public static ConfigurableApplicationContext start(String... properties) {
+        return new SpringApplicationBuilder(DataJpaApplication.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:bench" + DB_SEQ.incrementAndGet() + ";DB_CLOSE_DELAY=-1",
+                        "spring.jpa.hibernate.ddl-auto=create",
+                        "logging.level.org.hibernate.SQL=warn",
+                        "decorator.datasource.enabled=false")
+                .properties(properties)
+                .run();
+    }
+}
@@ -0,0 +1,36 @@
+package study.datajpa.benchmark;
+
+import org.springframework.context.ApplicationContext;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamJpaRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 벤치마크 데이터 적재
+ * 회원 10명당 팀 1개, username 은 member0 ~ member9 를 반복한다. (username 조회 결과가 데이터 크기에 비례)
+ */
+public final class BenchmarkData {
+
+    public static final String USERNAME = "member1";
+
+    private BenchmarkData() {
+    }
+
+    public static void seedMembers(ApplicationContext context, int memberCount) {
+        List<Team> teams = new ArrayList<>();
+        for (int i = 0; i < Math.max(1, memberCount / 10); i++) {
+            teams.add(new Team("team" + i));
+        }
+        context.getBean(TeamJpaRepository.class).saveAllBatched(teams);
+
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < memberCount; i++) {
+            members.add(new Member("member" + (i % 10), i % 100, teams.get(i % teams.size())));
+        }
+        context.getBean(MemberRepository.class).saveAllBatched(members);
+    }
+}
@@ -0,0 +1,152 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 같은 데이터를 읽는 조회 방식별 비용 비교
+ * 처리량(ops/s)과 함께 -prof gc 의 gc.alloc.rate.norm (op 당 할당 바이트)을 본다.
+ *
+ * 엔티티 조회는 member.team.name 까지 접근해서 지연 로딩 비용까지 포함한다.
+ * 2차 캐시는 꺼서 매번 DB 를 읽는 비용을 측정한다.
+ * 일반(쓰기 가능) 트랜잭션에서 실행한다. readOnly 트랜잭션이면 모든 엔티티 조회가 이미 읽기 전용이라 @ReadOnlyQuery 와 차이가 없다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FetchStrategyBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int dataSize;
+
+    private static final String SINGLE_USERNAME = "readOnlyTarget"; // 단건 조회용, 한 명만 있다
+
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate transactionTemplate;
+    private MemberRepository memberRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(
+                "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+                "spring.jpa.properties.hibernate.cache.use_query_cache=false");
+        BenchmarkData.seedMembers(context, dataSize);
+        memberRepository = context.getBean(MemberRepository.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        memberRepository.save(new Member(SINGLE_USERNAME, 0));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void lazyLoading(Blackhole bh) { // 기준선: 페치 전략 없이 team 접근 (N+1)
+        consumeWithTeam(bh, memberRepository::findMemberCustom);
+    }
+
+    @Benchmark
+    public void fetchJoin(Blackhole bh) {
+        consumeWithTeam(bh, memberRepository::findMemberFetchJoin);
+    }
+
+    @Benchmark
+    public void entityGraph(Blackhole bh) {
+        consumeWithTeam(bh, memberRepository::findMemberEntityGraph);
+    }
+
+    @Benchmark
+    public void entityGraphByUsername(Blackhole bh) {
+        consumeWithTeam(bh, () -> memberRepository.findEntityGraphByUsername(BenchmarkData.USERNAME));
+    }
+
+    @Benchmark
+    public void memberByUsername(Blackhole bh) { // 단건 readOnly 비교 기준선 (스냅샷 + 변경 감지 + flush)
+        bh.consume(inTx(() -> memberRepository.findMemberByUsername(SINGLE_USERNAME)));
+    }
+
+    @Benchmark
+    public void readOnlyByUsername(Blackhole bh) { // 같은 조건, findReadOnlyByUsername (@ReadOnlyQuery 단건)
+        bh.consume(inTx(() -> memberRepository.findReadOnlyByUsername(SINGLE_USERNAME)));
+    }
+
+    @Benchmark
+    public void listByUsername(Blackhole bh) { // 목록 readOnly 비교 기준선
+        bh.consume(inTx(() -> memberRepository.findListByUsername(BenchmarkData.USERNAME)));
+    }
+
+    @Benchmark
+    public void readOnlyQueryByUsername(Blackhole bh) { // 같은 조건, @ReadOnlyQuery 메서드로 엔티티 목록 조회 (동적 프로젝션에 엔티티 타입)
+        bh.consume(inTx(() -> memberRepository.findProjectionsByUsername(BenchmarkData.USERNAME, Member.class)));
+    }
+
+    @Benchmark
+    public void interfaceProjection(Blackhole bh) {
+        inTx(() -> {
+            for (UsernameOnly usernameOnly : memberRepository.findProjectionsByUsername(BenchmarkData.USERNAME, UsernameOnly.class)) {
+                bh.consume(usernameOnly.getUsername());
+            }
+            return null;
+        });
+    }
+
+    @Benchmark
+    public void dtoProjection(Blackhole bh) {
+        inTx(() -> {
+            for (UsernameOnlyDto dto : memberRepository.findProjectionsByUsername(BenchmarkData.USERNAME, UsernameOnlyDto.class)) {
+                bh.consume(dto.getUsername());
+            }
+            return null;
+        });
+    }
+
+    @Benchmark
+    public void nestedProjection(Blackhole bh) {
+        inTx(() -> {
+            for (NestedClosedProjections p : memberRepository.findProjectionsByUsername(BenchmarkData.USERNAME, NestedClosedProjections.class)) {
+                bh.consume(p.getUsername());
+                bh.consume(p.getTeam().getName());
+            }
+            return null;
+        });
+    }
+
+    @Benchmark
+    public void nativeProjection(Blackhole bh) {
+        inTx(() -> {
+            for (MemberProjection p : memberRepository.findByNativeProjection(PageRequest.of(0, dataSize))) {
+                bh.consume(p.getUsername());
+                bh.consume(p.getTeamName());
+            }
+            return null;
+        });
+    }
+
+    private void consumeWithTeam(Blackhole bh, Supplier<List<Member>> query) {
+        inTx(() -> {
+            for (Member member : query.get()) {
+                bh.consume(member.getUsername());
+                bh.consume(member.getTeam().getName());
+            }
+            return null;
+        });
+    }
+
+    private <T> T inTx(Supplier<T> work) {
+        return transactionTemplate.execute(status -> work.get());
+    }
+}
@@ -0,0 +1,72 @@
+package study.datajpa.benchmark;
+
+import org.hibernate.engine.spi.PersistentAttributeInterceptable;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.datajpa.entity.Member;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 영속성 컨텍스트에 엔티티가 많을 때 flush 비용 (변경 감지)
+ * 회원 N 명을 조회해두고 1% 만 수정한 뒤 flush 한 번. (ms/flush)
+ *
+ * - 향상 전: 관리 중인 모든 엔티티를 스냅샷과 필드별로 비교
+ * - 향상 후: 필드 쓰기 때 기록해둔 변경 필드만 확인 (build.gradle hibernate.enhance)
+ *
+ * 비교: ./gradlew jmh -PjmhIncludes=FlushCost 와 ./gradlew jmh -PjmhIncludes=FlushCost -PhibernateEnhance=false
+ * 어느 쪽으로 실행됐는지는 시작 시 출력되는 enhanced 값으로 확인
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class FlushCostBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int entities;
+
+    private ConfigurableApplicationContext context;
+    private EntityManagerFactory entityManagerFactory;
+    private EntityManager em;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        entityManagerFactory = context.getBean(EntityManagerFactory.class);
+        BenchmarkData.seedMembers(context, entities);
+        System.out.println("enhanced = " + PersistentAttributeInterceptable.class.isAssignableFrom(Member.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Setup(Level.Invocation)
+    public void load() {
+        em = entityManagerFactory.createEntityManager();
+        em.getTransaction().begin();
+        List<Member> members = em.createQuery("select m from Member m", Member.class).getResultList();
+        for (int i = 0; i < members.size(); i += 100) {
+            Member member = members.get(i);
+            member.setAge(member.getAge() + 1);
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void rollback() {
+        em.getTransaction().rollback();
+        em.close();
+    }
+
+    @Benchmark
+    public void flush() {
+        em.flush();
+    }
+}
@@ -0,0 +1,109 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.OptimisticRetryExecutor;
+
+import javax.persistence.CacheRetrieveMode;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.LockModeType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 같은 회원(hot row) 동시 수정: 비관적 락 vs 낙관적 락 + 재시도
+ * 한 번 실행(op)에 writers 개 스레드가 나눠서 총 INCREMENTS 번 나이를 1 증가시킨다. (ms/op, 작을수록 좋음)
+ *
+ * - pessimistic : id 로 SELECT ... FOR UPDATE 후 수정
+ * - optimistic  : id 로 SELECT 후 수정, @Version 충돌 시 OptimisticRetryExecutor 가 재시도
+ * 락 방식만 비교하도록 두 경우 모두 같은 em.find(id) 로 읽고 2차 캐시는 거치지 않는다. (Member 는 2차 캐시 대상)
+ *
+ * writers 가 커넥션 풀(기본 10)보다 많으면 나머지는 커넥션을 기다린다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LockContentionBenchmark {
+
+    private static final int INCREMENTS = 256;
+    private static final String HOT_USERNAME = "hot";
+    private static final Map<String, Object> BYPASS_CACHE = Map.of("javax.persistence.cache.retrieveMode", CacheRetrieveMode.BYPASS);
+
+    @Param({"1", "8", "64"})
+    public int writers;
+
+    @Param({"pessimistic", "optimistic"})
+    public String strategy;
+
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate transactionTemplate;
+    private MemberRepository memberRepository;
+    private OptimisticRetryExecutor optimisticRetryExecutor;
+    private EntityManager em;
+    private ExecutorService executor;
+    private Long hotId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(
+                "datajpa.optimistic-retry.max-attempts=1000", // 충돌이 많아도 끝까지 성공시켜서 비교
+                "datajpa.optimistic-retry.backoff=1ms",
+                "datajpa.optimistic-retry.max-backoff=20ms");
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        memberRepository = context.getBean(MemberRepository.class);
+        optimisticRetryExecutor = context.getBean(OptimisticRetryExecutor.class);
+        em = SharedEntityManagerCreator.createSharedEntityManager(context.getBean(EntityManagerFactory.class));
+        hotId = memberRepository.save(new Member(HOT_USERNAME, 0)).getId();
+        executor = Executors.newFixedThreadPool(writers);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+        context.close();
+    }
+
+    @Benchmark
+    public void incrementHotRow() throws Exception {
+        Runnable increment = "pessimistic".equals(strategy) ? this::pessimistic : this::optimistic;
+        List<Future<?>> futures = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            int count = INCREMENTS / writers + (w < INCREMENTS % writers ? 1 : 0);
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < count; i++) {
+                    increment.run();
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+    }
+
+    private void pessimistic() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Member member = em.find(Member.class, hotId, LockModeType.PESSIMISTIC_WRITE, BYPASS_CACHE);
+            member.setAge(member.getAge() + 1);
+        });
+    }
+
+    private void optimistic() {
+        optimisticRetryExecutor.run(() -> {
+            Member member = em.find(Member.class, hotId, BYPASS_CACHE);
+            member.setAge(member.getAge() + 1);
+        });
+    }
+}
@@ -0,0 +1,56 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.BlockSequenceGenerator;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberJpaRepository;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 식별자 블록 크기별 INSERT 처리량 (inserts/s)
+ * incrementSize = 1  : 기존 @GeneratedValue 와 같이 persist 마다 시퀀스 조회 (before)
+ * incrementSize = 50 : pooled-lo 로 50건마다 한 번만 시퀀스 조회 (after)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SequenceInsertBenchmark {
+
+    private static final int INSERTS_PER_TX = 100;
+
+    @Param({"1", "50"})
+    public String incrementSize;
+
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate transactionTemplate;
+    private MemberJpaRepository memberJpaRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(
+                "spring.jpa.properties." + BlockSequenceGenerator.INCREMENT_SIZE_SETTING + "=" + incrementSize);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        memberJpaRepository = context.getBean(MemberJpaRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(INSERTS_PER_TX)
+    public void insertMembers() {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < INSERTS_PER_TX; i++) {
+                memberJpaRepository.save(new Member("member" + i, i));
+            }
+        });
+    }
+}
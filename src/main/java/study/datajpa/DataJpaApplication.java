@@ -2,25 +2,37 @@ package study.datajpa;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 import org.springframework.context.annotation.Bean;
+import org.springframework.data.auditing.DateTimeProvider;
 import org.springframework.data.domain.AuditorAware;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import study.datajpa.entity.AuditingContext;
 
-import java.util.Optional;
-import java.util.UUID;
+import java.time.temporal.TemporalAccessor;
 
-@EnableJpaAuditing
+@EnableJpaAuditing(dateTimeProviderRef = "auditingDateTimeProvider")
+@EnableScheduling
 @SpringBootApplication
 //@EnableJpaRepositories(basePackages = "study.datajpa.repository")	// 스프링 부트를 쓰므로 없어도 됨!
 public class DataJpaApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(DataJpaApplication.class, args);
+		SpringApplication application = new SpringApplication(DataJpaApplication.class);
+		application.setApplicationStartup(new BufferingApplicationStartup(4096));	// 시작 단계별 소요 시간 기록 (StartupTimelineReporter, /actuator/startup)
+		application.run(args);
 	}
 
 	@Bean
 	public AuditorAware<String> auditorProvider() {
-		return () -> Optional.of(UUID.randomUUID().toString());
+//		return () -> Optional.of(UUID.randomUUID().toString());	// 엔티티마다 SecureRandom 호출
+		return AuditingContext::currentAuditor;	// 트랜잭션마다 한 번
+	}
+
+	@Bean
+	public DateTimeProvider auditingDateTimeProvider() {
+		return () -> AuditingContext.currentTime().map(TemporalAccessor.class::cast);	// 1ms 단위로 캐시
 	}
 }
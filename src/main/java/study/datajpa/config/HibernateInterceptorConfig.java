@@ -0,0 +1,24 @@
+package study.datajpa.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 세션 팩토리 공통 인터셉터 등록 (hibernate.session_factory.interceptor)
+ * 모든 세션이 공유하므로 인터셉터는 상태를 가지지 않아야 한다.
+ */
+@Configuration
+public class HibernateInterceptorConfig {
+
+    @Bean
+    public JpaEntityInterceptor jpaEntityInterceptor() {
+        return new JpaEntityInterceptor();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer interceptorCustomizer(JpaEntityInterceptor jpaEntityInterceptor) {
+        return properties -> properties.put(AvailableSettings.INTERCEPTOR, jpaEntityInterceptor);
+    }
+}
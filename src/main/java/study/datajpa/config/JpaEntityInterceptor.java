@@ -0,0 +1,26 @@
+package study.datajpa.config;
+
+import org.hibernate.EmptyInterceptor;
+import org.hibernate.Transaction;
+import study.datajpa.entity.AuditingContext;
+
+/**
+ * 세션 팩토리 공통 하이버네이트 인터셉터
+ * - 트랜잭션 시작/종료를 AuditingContext 에 알린다. (트랜잭션마다 등록자 하나)
+ *
+ * 새 엔티티 여부(isTransient)는 여기서 바꾸지 않는다. merge(), cascade, saveOrUpdate 까지 전부 영향을 받기 때문.
+ * id 를 미리 할당한 새 엔티티는 save() 가 Persistable.isNew() 로 persist() 를 고르고,
+ * 하이버네이트는 @Version 값이 null 이면 새 엔티티로 본다. (BaseTimeEntity, JpaBaseEntity)
+ */
+public class JpaEntityInterceptor extends EmptyInterceptor {
+
+    @Override
+    public void afterTransactionBegin(Transaction tx) {
+        AuditingContext.afterTransactionBegin(tx);
+    }
+
+    @Override
+    public void afterTransactionCompletion(Transaction tx) {
+        AuditingContext.afterTransactionCompletion(tx);
+    }
+}
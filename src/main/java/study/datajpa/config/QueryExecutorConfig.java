@@ -0,0 +1,33 @@
+package study.datajpa.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * 보조 쿼리(페이지 count 등)를 요청 스레드와 동시에 실행하는 스레드 풀
+ * 작업마다 커넥션을 하나 더 쓰므로 커넥션 풀 크기를 기준으로 제한한다.
+ * 풀의 절반까지만 쓰고, 큐가 차면 요청 스레드에서 직접 실행한다. (= 기존처럼 순차 실행)
+ * 요청 스레드가 커넥션을 모두 잡은 상태에서 보조 쿼리가 커넥션을 기다리다 타임아웃 나는 것을 막기 위함.
+ * 쓰기 직후 원본 고정(ReplicationRoutingDataSource)은 작업 스레드로 넘긴다.
+ */
+@Configuration
+public class QueryExecutorConfig {
+
+    @Bean(name = "queryExecutor")
+    public ThreadPoolTaskExecutor queryExecutor(@Value("${spring.datasource.hikari.maximum-pool-size:10}") int maxPoolSize) {
+        int threads = Math.max(1, maxPoolSize / 2);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("query-");
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(threads * 2);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setTaskDecorator(ReplicationRoutingDataSource::propagatePin);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+}
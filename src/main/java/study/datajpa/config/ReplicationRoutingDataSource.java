@@ -0,0 +1,105 @@
+package study.datajpa.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * 읽기 전용 트랜잭션은 복제본(replica), 나머지는 원본(primary) 으로 보내는 DataSource
+ * 트랜잭션 시작 시점에는 아직 readOnly 여부가 동기화 매니저에 없으므로 반드시 LazyConnectionDataSourceProxy 로 감싸서
+ * 첫 SQL 을 실행할 때 커넥션을 고르게 해야 한다. (RoutingDataSourceConfig)
+ *
+ * 복제 지연 대비: 쓰기 트랜잭션이 커밋되면 그 스레드(요청)는 pin-after-write 동안 읽기도 원본으로 보낸다.
+ * 방금 저장한 데이터를 복제본에서 못 읽는 문제 방지. 요청이 끝나면 해제한다.
+ * queryExecutor 로 넘긴 보조 쿼리에도 요청 스레드의 고정을 넘긴다. (propagatePin)
+ */
+public class ReplicationRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String ROUTING = "datasource.routing";
+
+    enum Target {PRIMARY, REPLICA}
+
+    private static final ThreadLocal<Long> pinnedUntil = new ThreadLocal<>();
+
+    private final long pinNanos;
+    private final Counter primaryCounter;
+    private final Counter replicaCounter;
+
+    public ReplicationRoutingDataSource(Duration pinAfterWrite, MeterRegistry meterRegistry) {
+        this.pinNanos = pinAfterWrite.toNanos();
+        this.primaryCounter = meterRegistry.counter(ROUTING, "target", "primary");
+        this.replicaCounter = meterRegistry.counter(ROUTING, "target", "replica");
+    }
+
+    /**
+     * 현재 스레드의 읽기를 원본으로 고정 (복제본에 아직 반영되지 않았을 수 있는 데이터를 읽기 전에)
+     */
+    public void pinToPrimary() {
+        pinnedUntil.set(System.nanoTime() + pinNanos);
+    }
+
+    public static void clearPin() {
+        pinnedUntil.remove();
+    }
+
+    /**
+     * 다른 스레드에서 실행할 작업에 현재 스레드의 원본 고정을 넘긴다. (TaskDecorator)
+     * 끝나면 실행 스레드의 원래 값으로 되돌린다. 풀 스레드에 남지 않고, 큐가 차서 요청 스레드가 직접 실행해도 고정이 풀리지 않는다.
+     */
+    public static Runnable propagatePin(Runnable task) {
+        Long pin = pinnedUntil.get();
+        return () -> {
+            Long previous = pinnedUntil.get();
+            set(pin);
+            try {
+                task.run();
+            } finally {
+                set(previous);
+            }
+        };
+    }
+
+    private static void set(Long until) {
+        if (until != null) {
+            pinnedUntil.set(until);
+        } else {
+            pinnedUntil.remove();
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Target target = currentTarget();
+        (target == Target.REPLICA ? replicaCounter : primaryCounter).increment();
+        return target;
+    }
+
+    private Target currentTarget() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return Target.PRIMARY; // 트랜잭션 밖 (자동 커밋) 은 쓰기일 수 있다.
+        }
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        pinToPrimary();
+                    }
+                });
+            }
+            return Target.PRIMARY;
+        }
+        Long until = pinnedUntil.get();
+        if (until != null) {
+            if (until - System.nanoTime() > 0) {
+                return Target.PRIMARY;
+            }
+            pinnedUntil.remove();
+        }
+        return Target.REPLICA;
+    }
+}
@@ -0,0 +1,86 @@
+package study.datajpa.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.servlet.Filter;
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * 원본/복제본 DataSource 라우팅 (datajpa.datasource.routing.enabled=true 일 때만)
+ * - primaryDataSource: spring.datasource.* (쓰기, 트랜잭션 밖)
+ * - replicaDataSource: datajpa.datasource.replica.* (@Transactional(readOnly = true), 스프링 데이터 JPA 기본 조회 메서드)
+ *   url 을 비워두면 원본과 같은 DB 에 커넥션 풀만 따로 만든다. (로컬 H2 에서 복제 지연 0 인 복제본 흉내)
+ *
+ * p6spy 는 두 커넥션 풀을 감싸므로 라우팅 DataSource 는 감싸지 않는다. (decorator.datasource.exclude-beans)
+ */
+@Configuration
+@ConditionalOnProperty(name = "datajpa.datasource.routing.enabled", havingValue = "true")
+public class RoutingDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("datajpa.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties,
+                                              @Value("${datajpa.datasource.replica.url:}") String url,
+                                              @Value("${datajpa.datasource.replica.username:}") String username,
+                                              @Value("${datajpa.datasource.replica.password:}") String password) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        if (StringUtils.hasText(url)) {
+            dataSource.setJdbcUrl(url);
+            dataSource.setUsername(username);
+            dataSource.setPassword(password);
+        }
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource routingDataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                        @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                        @Value("${datajpa.datasource.routing.pin-after-write:1s}") Duration pinAfterWrite,
+                                        MeterRegistry meterRegistry) {
+        ReplicationRoutingDataSource routing = new ReplicationRoutingDataSource(pinAfterWrite, meterRegistry);
+        routing.setTargetDataSources(Map.of(
+                ReplicationRoutingDataSource.Target.PRIMARY, primaryDataSource,
+                ReplicationRoutingDataSource.Target.REPLICA, replicaDataSource));
+        routing.setDefaultTargetDataSource(primaryDataSource);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    /**
+     * 쓰기 후 원본 고정은 요청 단위
+     */
+    @Bean
+    public Filter replicaPinFilter() {
+        return (request, response, chain) -> {
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                ReplicationRoutingDataSource.clearPin();
+            }
+        };
+    }
+}
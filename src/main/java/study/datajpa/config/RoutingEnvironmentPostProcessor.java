@@ -0,0 +1,32 @@
+package study.datajpa.config;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+
+import java.util.Map;
+
+/**
+ * 라우팅을 켜면 (datajpa.datasource.routing.enabled=true) 커넥션을 트랜잭션마다 새로 고르도록 JPA 설정을 바꾼다.
+ *
+ * 스프링의 HibernateJpaVendorAdapter 기본값은 DELAYED_ACQUISITION_AND_HOLD 라서 세션이 처음 얻은 커넥션을 닫힐 때까지 쥐고 있고,
+ * open-in-view 는 요청 내내 세션 하나를 쓴다. 요청의 첫 트랜잭션이 읽기 전용이면 이후 쓰기 트랜잭션도 복제본 커넥션에서 실행된다.
+ * - spring.jpa.open-in-view = false
+ * - hibernate.connection.handling_mode = DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION
+ * (application.yml 등에 직접 설정한 값이 있으면 그 값이 우선)
+ */
+public class RoutingEnvironmentPostProcessor implements EnvironmentPostProcessor {
+
+    private static final String PROPERTY_SOURCE_NAME = "datajpaRoutingDefaults";
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        if (!environment.getProperty("datajpa.datasource.routing.enabled", Boolean.class, false)) {
+            return;
+        }
+        environment.getPropertySources().addLast(new MapPropertySource(PROPERTY_SOURCE_NAME, Map.of(
+                "spring.jpa.open-in-view", "false",
+                "spring.jpa.properties.hibernate.connection.handling_mode", "DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION")));
+    }
+}
@@ -0,0 +1,71 @@
+package study.datajpa.config;
+
+import org.ehcache.config.CacheConfiguration;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 하이버네이트 2차 캐시 (JCache + Ehcache, 로컬 힙)
+ * 읽기가 많은 Team, Member(id 조회), Team.members 컬렉션, Member.findByUsername 네임드 쿼리 결과를 캐시한다.
+ *
+ * 리전(region)별 최대 개수와 TTL 은 datajpa.cache.* 로 설정한다.
+ * 쿼리 캐시의 무효화 기준이 되는 update-timestamps 리전은 만료되면 안 되므로 TTL 을 두지 않는다.
+ * 리전별 hit/miss 통계는 /internal/cache-stats 에서 확인.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    public static final String QUERY_RESULTS_REGION = "default-query-results-region";
+    public static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    private static final AtomicInteger MANAGER_SEQ = new AtomicInteger(); // 컨텍스트마다 별도 CacheManager (테스트/벤치마크)
+
+    @Bean(destroyMethod = "close")
+    public CacheManager jpaCacheManager(@Value("${datajpa.cache.max-entries:10000}") long maxEntries,
+                                        @Value("${datajpa.cache.ttl:10m}") Duration ttl,
+                                        @Value("${datajpa.cache.query-max-entries:1000}") long queryMaxEntries,
+                                        @Value("${datajpa.cache.query-ttl:1m}") Duration queryTtl) {
+        CacheConfiguration<Object, Object> entityRegion = region(maxEntries, ttl);
+
+        org.ehcache.config.Configuration configuration = ConfigurationBuilder.newConfigurationBuilder()
+                .withCache(Member.class.getName(), entityRegion)
+                .withCache(Team.class.getName(), entityRegion)
+                .withCache(Team.class.getName() + ".members", entityRegion)
+                .withCache(QUERY_RESULTS_REGION, region(queryMaxEntries, queryTtl))
+                .withCache(UPDATE_TIMESTAMPS_REGION, CacheConfigurationBuilder
+                        .newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(maxEntries))
+                        .build())
+                .build();
+
+        EhcacheCachingProvider provider = (EhcacheCachingProvider) Caching.getCachingProvider(EhcacheCachingProvider.class.getName());
+        return provider.getCacheManager(URI.create("urn:datajpa:jpa-cache:" + MANAGER_SEQ.incrementAndGet()), configuration);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer jpaCacheManagerCustomizer(CacheManager jpaCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, jpaCacheManager);
+    }
+
+    private static CacheConfiguration<Object, Object> region(long maxEntries, Duration ttl) {
+        return CacheConfigurationBuilder
+                .newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(maxEntries))
+                .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(ttl))
+                .build();
+    }
+}
@@ -0,0 +1,42 @@
+package study.datajpa.controller;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 2차 캐시 리전별 통계 (내부 확인용)
+ */
+@RestController
+public class CacheStatsController {
+
+    private final Statistics statistics;
+
+    public CacheStatsController(EntityManagerFactory emf) {
+        this.statistics = emf.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @GetMapping("/internal/cache-stats")
+    public Map<String, Map<String, Long>> cacheStats() {
+        Map<String, Map<String, Long>> result = new LinkedHashMap<>();
+        for (String regionName : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics region = statistics.getCacheRegionStatistics(regionName);
+            if (region == null) {
+                continue;
+            }
+            Map<String, Long> stats = new LinkedHashMap<>();
+            stats.put("hit", region.getHitCount());
+            stats.put("miss", region.getMissCount());
+            stats.put("put", region.getPutCount());
+            stats.put("elementsInMemory", region.getElementCountInMemory());
+            result.put(regionName, stats);
+        }
+        return result;
+    }
+}
@@ -1,13 +1,18 @@
 package study.datajpa.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import study.datajpa.dto.CountedPage;
 import study.datajpa.dto.MemberDto;
 import study.datajpa.dto.PageCustom;
 import study.datajpa.dto.PageableCustom;
@@ -15,6 +20,9 @@ import study.datajpa.entity.Member;
 import study.datajpa.repository.MemberRepository;
 
 import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * Web 확장 - 도메인 클래스 컨버터
@@ -32,6 +40,9 @@ public class MemberController {
 
     private final MemberRepository memberRepository;
 
+    @Value("${datajpa.multi-get.max-ids:2000}")
+    private int maxIds;
+
     @GetMapping("/members/{id}")
     public String findMember(@PathVariable("id") Long id) {
         Member member = memberRepository.findById(id).get();
@@ -53,22 +64,51 @@ public class MemberController {
     @GetMapping("/members")
     // 페이징 관련 개별 설정(글로벌 설정보다 우선순위가 높음.)
     public Page<MemberDto> list(@PageableDefault(size = 5) Pageable pageable) {
-        return memberRepository.findAll(pageable)
+        // 엔티티를 거치지 않고 DTO(팀 이름 포함)로 바로 조회, 전체 개수는 count 캐시를 거친다. (totalExact 가 false 면 근사값)
+        return memberRepository.findMemberDtoCachedCount(pageable);
+//        return memberRepository.findAllCachedCount(pageable)
 //                .map(member -> new MemberDto(member));
-                .map(MemberDto::new); //람다로 길이를 줄임.
+//                .map(MemberDto::new); //람다로 길이를 줄임.
+    }
+
+    /**
+     * 여러 회원 한 번에 조회: /members?ids=1,2,3 (id 마다 /members/{id} 를 호출하지 않도록)
+     * 요청한 id 순서대로, 없는 id 는 빠진다.
+     */
+    @GetMapping(value = "/members", params = "ids")
+    public List<MemberDto> listByIds(@RequestParam("ids") List<Long> ids) {
+        if (ids.size() > maxIds) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "ids 는 최대 " + maxIds + "개");
+        }
+        return memberRepository.findAllByIdInOrder(ids).stream()
+                .map(m -> new MemberDto(m.getId(), m.getUsername(), m.getTeam() != null ? m.getTeam().getName() : null))
+                .collect(Collectors.toList());
     }
 
     @GetMapping("/memberscustom")
     public PageCustom<MemberDto> listCustom(Pageable pageable) {
-        Page<MemberDto> map = memberRepository.findAll(pageable).map(MemberDto::new);
-        return new PageCustom<MemberDto>(map.getContent(), map.getPageable(), map.getTotalElements());
+        CountedPage<MemberDto> map = memberRepository.findMemberDtoCachedCount(pageable);
+        return new PageCustom<MemberDto>(map.getContent(), map.getPageable(), map.getTotalElements(), map.isTotalExact());
+    }
+
+    /**
+     * 키셋 페이징: 응답의 nextCursor / previousCursor 를 cursor 파라미터로 넘겨서 이동한다.
+     * 깊은 페이지도 첫 페이지와 같은 비용으로 조회된다.
+     */
+    @GetMapping("/members/keyset")
+    public PageCustom<MemberDto> listKeyset(@RequestParam(value = "cursor", required = false) String cursor,
+                                            @RequestParam(value = "size", defaultValue = "5") int size) {
+        int pageSize = Math.max(1, Math.min(size, 2000)); // max-page-size 설정과 동일하게 제한
+        return memberRepository.findKeysetByUsername(cursor, pageSize).map(MemberDto::new);
     }
 
 //    @PostConstruct
     public void init() {
 //        memberRepository.save(new Member("userA"));
+        List<Member> members = new ArrayList<>();
         for (int i = 0; i < 100; i++) { // 스프링 데이터 페이징 정렬기능 실습을 위한 테스트 데이터 넣기
-            memberRepository.save(new Member("user" + i, i));
+            members.add(new Member("user" + i, i));
         }
+        memberRepository.saveAllBatched(members); // INSERT 를 JDBC 배치로 묶어서 전송
     }
 }
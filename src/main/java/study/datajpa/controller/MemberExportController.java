@@ -0,0 +1,78 @@
+package study.datajpa.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.repository.MemberRepository;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+/**
+ * 회원 전체 내보내기 (NDJSON / CSV)
+ * DB 커서에서 한 행씩 읽어 바로 응답으로 흘려보내므로 회원 수와 상관없이 힙 사용량이 일정하다.
+ * 스트림을 읽는 동안 커넥션이 필요하므로 응답을 다 쓸 때까지 (읽기 전용) 트랜잭션을 유지한다.
+ */
+@RestController
+@RequiredArgsConstructor
+public class MemberExportController {
+
+    private final MemberRepository memberRepository;
+    private final ObjectMapper objectMapper;
+
+    @GetMapping("/members/export")
+    @Transactional(readOnly = true)
+    public void export(@RequestParam(value = "format", defaultValue = "ndjson") String format,
+                       HttpServletResponse response) throws IOException {
+        boolean csv = "csv".equalsIgnoreCase(format);
+        if (!csv && !"ndjson".equalsIgnoreCase(format)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "지원하지 않는 형식: " + format);
+        }
+
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setContentType(csv ? "text/csv" : "application/x-ndjson");
+        response.setHeader("Content-Disposition", "attachment; filename=members." + (csv ? "csv" : "ndjson"));
+
+        PrintWriter writer = response.getWriter();
+        ObjectWriter jsonWriter = objectMapper.writerFor(MemberDto.class);
+        if (csv) {
+            writer.write("id,username,teamName\n");
+        }
+
+        try (Stream<MemberDto> members = memberRepository.streamMemberDto()) {
+            members.forEach(member -> {
+                try {
+                    writer.write(csv ? toCsvLine(member) : jsonWriter.writeValueAsString(member) + "\n");
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+        writer.flush();
+    }
+
+    private static String toCsvLine(MemberDto member) {
+        return member.getId() + "," + csvValue(member.getUsername()) + "," + csvValue(member.getTeamName()) + "\n";
+    }
+
+    private static String csvValue(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+}
@@ -0,0 +1,65 @@
+package study.datajpa.controller;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import study.datajpa.monitor.RepositoryMetricsAspect;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 리포지토리 메서드별 지표 (내부 확인용, 시간 단위 ms)
+ * key: 리포지토리.메서드
+ */
+@RestController
+@RequiredArgsConstructor
+public class RepositoryMetricsController {
+
+    private final MeterRegistry meterRegistry;
+
+    @GetMapping("/internal/repository-metrics")
+    public Map<String, Map<String, Object>> repositoryMetrics() {
+        Map<String, Map<String, Object>> result = new TreeMap<>();
+        for (Timer timer : meterRegistry.find(RepositoryMetricsAspect.INVOCATIONS).timers()) {
+            String repository = timer.getId().getTag("repository");
+            String method = timer.getId().getTag("method");
+
+            HistogramSnapshot snapshot = timer.takeSnapshot();
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("count", snapshot.count());
+            stats.put("mean", snapshot.mean(TimeUnit.MILLISECONDS));
+            for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+                stats.put("p" + Math.round(percentile.percentile() * 100), percentile.value(TimeUnit.MILLISECONDS));
+            }
+            stats.put("max", snapshot.max(TimeUnit.MILLISECONDS));
+
+            DistributionSummary rows = meterRegistry.find(RepositoryMetricsAspect.ROWS)
+                    .tag("repository", repository).tag("method", method).summary();
+            if (rows != null) {
+                stats.put("rowsTotal", (long) rows.totalAmount());
+                stats.put("rowsMean", rows.mean());
+            }
+            Timer acquire = meterRegistry.find(RepositoryMetricsAspect.CONNECTION_ACQUIRE)
+                    .tag("repository", repository).tag("method", method).timer();
+            if (acquire != null) {
+                stats.put("connectionAcquireMean", acquire.mean(TimeUnit.MILLISECONDS));
+                stats.put("connectionAcquireMax", acquire.max(TimeUnit.MILLISECONDS));
+            }
+            Counter errors = meterRegistry.find(RepositoryMetricsAspect.ERRORS)
+                    .tag("repository", repository).tag("method", method).counter();
+            stats.put("errors", errors != null ? (long) errors.count() : 0L);
+
+            result.put(repository + "." + method, stats);
+        }
+        return result;
+    }
+}
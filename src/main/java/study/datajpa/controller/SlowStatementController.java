@@ -0,0 +1,30 @@
+package study.datajpa.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import study.datajpa.monitor.SlowStatementRecorder;
+
+import java.util.List;
+
+/**
+ * 최근 느린 SQL 과 실행 계획 (내부 확인용, 최신순)
+ * plan 이 null 이면 아직 EXPLAIN 중, "-" 이면 계획 없음 (EXPLAIN 할 수 없는 SQL, 실패한 SQL, 대기열 초과)
+ */
+@RestController
+@RequiredArgsConstructor
+public class SlowStatementController {
+
+    private final SlowStatementRecorder slowStatementRecorder;
+
+    @GetMapping("/internal/slow-statements")
+    public List<SlowStatementRecorder.SlowStatement> slowStatements() {
+        return slowStatementRecorder.getStatements();
+    }
+
+    @DeleteMapping("/internal/slow-statements")
+    public void clear() {
+        slowStatementRecorder.clear();
+    }
+}
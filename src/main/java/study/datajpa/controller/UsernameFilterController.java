@@ -0,0 +1,23 @@
+package study.datajpa.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import study.datajpa.repository.UsernameBloomFilter;
+
+import java.util.Map;
+
+/**
+ * username 블룸 필터 통계 (내부 확인용)
+ */
+@RestController
+@RequiredArgsConstructor
+public class UsernameFilterController {
+
+    private final UsernameBloomFilter usernameBloomFilter;
+
+    @GetMapping("/internal/username-filter")
+    public Map<String, Object> usernameFilter() {
+        return usernameBloomFilter.getStats();
+    }
+}
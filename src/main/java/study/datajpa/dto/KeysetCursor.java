@@ -0,0 +1,61 @@
+package study.datajpa.dto;
+
+import lombok.Getter;
+import study.datajpa.entity.Member;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * 키셋(seek) 페이징 커서
+ * 마지막으로 읽은 행의 정렬 키 (username, member_id)를 기억해두고 다음 페이지는 그 키 '이후'부터 조회한다.
+ * offset 방식처럼 앞의 행을 읽고 버리지 않으므로 몇 번째 페이지든 첫 페이지와 비용이 같다.
+ *
+ * 클라이언트에게는 내부 구조를 숨긴 불투명(opaque) 문자열로 내려준다.
+ */
+@Getter
+public class KeysetCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final String username;
+    private final Long id;
+    private final boolean backward; // true 면 커서 '이전' 방향(이전 페이지)으로 조회
+
+    public KeysetCursor(String username, Long id, boolean backward) {
+        this.username = username;
+        this.id = id;
+        this.backward = backward;
+    }
+
+    public static KeysetCursor after(Member member) {
+        return new KeysetCursor(member.getUsername(), member.getId(), false);
+    }
+
+    public static KeysetCursor before(Member member) {
+        return new KeysetCursor(member.getUsername(), member.getId(), true);
+    }
+
+    public String encode() {
+        String raw = (backward ? "P" : "N") + SEPARATOR + id + SEPARATOR + username;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return 커서가 비어 있으면 null (첫 페이지)
+     * @throws IllegalArgumentException 형식이 잘못된 커서
+     */
+    public static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR, 3); // username 에 구분자가 있어도 되도록 마지막에 둔다.
+            return new KeysetCursor(parts[2], Long.valueOf(parts[1]), "P".equals(parts[0]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("잘못된 페이지 커서: " + cursor, e);
+        }
+    }
+}
@@ -7,6 +7,8 @@ import org.springframework.data.domain.SliceImpl;
 
 import java.io.Serializable;
 import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Getter
 public class PageCustom<T> implements Serializable {
@@ -20,9 +22,33 @@ public class PageCustom<T> implements Serializable {
         this.pageableCustom = new PageableCustom(new PageImpl(content, pageable, total));
     }
 
+    public PageCustom(List<T> content, Pageable pageable, long total, boolean totalExact) {
+        this.content = content;
+        this.pageableCustom = new PageableCustom(new PageImpl(content, pageable, total), totalExact);
+    }
+
     public PageCustom(List<T> content, Pageable pageable, boolean hasNext) {
         this.content = content;
         this.pageableCustom = new PageableCustom(new SliceImpl(content, pageable, hasNext));
     }
 
+    /**
+     * 키셋 페이징 결과: 페이지 번호/전체 개수 대신 다음/이전 커서를 내려준다.
+     */
+    public PageCustom(List<T> content, int size, String nextCursor, String previousCursor) {
+        this.content = content;
+        this.pageableCustom = new PageableCustom(size, nextCursor, previousCursor);
+    }
+
+    private PageCustom(List<T> content, PageableCustom pageableCustom) {
+        this.content = content;
+        this.pageableCustom = pageableCustom;
+    }
+
+    // 페이지 정보는 그대로 두고 내용만 변환 (엔티티 -> DTO)
+    public <U> PageCustom<U> map(Function<? super T, ? extends U> converter) {
+        List<U> converted = content.stream().map(converter).collect(Collectors.toList());
+        return new PageCustom<>(converted, pageableCustom);
+    }
+
 }
@@ -13,11 +13,16 @@ public class PageableCustom {
     private boolean hasNext;
     private int totalPages;
     private long totalElements;
+    private boolean totalExact = true; // false 면 totalElements 는 캐시/추정치
     private int page;
     private int size;
 
     private Sort sort;
 
+    // 키셋 페이징에서만 사용 (offset 페이징이면 null)
+    private String nextCursor;
+    private String previousCursor;
+
     public PageableCustom() {
     }
 
@@ -32,6 +37,11 @@ public class PageableCustom {
         this.size = page.getSize();
     }
 
+    public PageableCustom(PageImpl page, boolean totalExact) {
+        this(page);
+        this.totalExact = totalExact;
+    }
+
     public PageableCustom(Slice slice) {
         this.first = slice.isFirst();
         this.last = slice.isLast();
@@ -40,4 +50,14 @@ public class PageableCustom {
         this.page = slice.getNumber() + 1;
         this.size = slice.getSize();
     }
+
+    public PageableCustom(int size, String nextCursor, String previousCursor) {
+        this.first = previousCursor == null;
+        this.hasNext = nextCursor != null;
+        this.last = !hasNext;
+        this.size = size;
+        this.sort = Sort.unsorted();
+        this.nextCursor = nextCursor;
+        this.previousCursor = previousCursor;
+    }
 }
@@ -0,0 +1,146 @@
+package study.datajpa.entity;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Auditing 값 캐시
+ * 엔티티마다 LocalDateTime.now() 와 UUID.randomUUID() 를 호출하면 대량 저장 시 CPU 프로파일에 Auditing 이 보인다.
+ * UUID.randomUUID() 는 공유 SecureRandom 을 쓰므로 동시 쓰기에서 경합까지 생긴다.
+ *
+ * - 시각: 같은 스레드에서 CLOCK_TICK(1ms) 안의 호출은 같은 시각을 쓴다. 긴 트랜잭션이어도 엔티티마다 저장한 때의 시각이 들어간다.
+ * - 등록자/수정자: 트랜잭션마다 한 번만 만든다. (ThreadLocalRandom 으로 만든 UUID)
+ *   트랜잭션마다 따로 쌓아 두므로 REQUIRES_NEW 로 끼어든 안쪽 트랜잭션이 끝나도 바깥 트랜잭션의 값은 그대로다.
+ * - suspend(): 대량 작업 동안 Auditing 을 끈다. (시각/등록자를 채우지 않음)
+ *
+ * 트랜잭션 시작/종료는 JpaEntityInterceptor 가 알려준다. 트랜잭션 밖에서는 등록자를 매번 새로 만든다.
+ */
+public final class AuditingContext {
+
+    private static final long CLOCK_TICK = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private static final ThreadLocal<State> STATE = ThreadLocal.withInitial(State::new);
+
+    private AuditingContext() {
+    }
+
+    public static LocalDateTime now() {
+        State state = STATE.get();
+        long nanos = System.nanoTime(); // LocalDateTime.now() 보다 싸다. (시간대 변환 없음)
+        if (state.now == null || nanos - state.nowNanos >= CLOCK_TICK) {
+            state.now = LocalDateTime.now();
+            state.nowNanos = nanos;
+        }
+        return state.now;
+    }
+
+    /**
+     * @return Auditing 이 꺼져 있으면 empty
+     */
+    public static Optional<LocalDateTime> currentTime() {
+        return isSuspended() ? Optional.empty() : Optional.of(now());
+    }
+
+    /**
+     * 실제 서비스라면 SecurityContext 의 사용자를 쓴다. 여기서는 트랜잭션마다 임의의 UUID.
+     * @return Auditing 이 꺼져 있으면 empty
+     */
+    public static Optional<String> currentAuditor() {
+        State state = STATE.get();
+        if (state.suspended > 0) {
+            return Optional.empty();
+        }
+        Scope scope = state.scopes.peek();
+        if (scope == null) {
+            return Optional.of(randomUuid().toString());
+        }
+        if (scope.auditor == null) {
+            scope.auditor = randomUuid().toString();
+        }
+        return Optional.of(scope.auditor);
+    }
+
+    public static boolean isSuspended() {
+        return STATE.get().suspended > 0;
+    }
+
+    /**
+     * try (AuditingContext.Suspension ignored = AuditingContext.suspend()) { ... }
+     * 중첩해서 써도 된다.
+     */
+    public static Suspension suspend() {
+        STATE.get().suspended++;
+        return new Suspension();
+    }
+
+    /**
+     * 트랜잭션 시작: 이 트랜잭션의 등록자 자리를 쌓는다.
+     * @param transaction 종료 때 같은 트랜잭션인지 확인하는 키 (하이버네이트 Transaction)
+     */
+    public static void afterTransactionBegin(Object transaction) {
+        STATE.get().scopes.push(new Scope(transaction));
+    }
+
+    /**
+     * 트랜잭션 종료: 가장 안쪽 트랜잭션이 이 트랜잭션이면 꺼낸다.
+     * 하이버네이트는 트랜잭션 없이 실행한 작업 뒤에도 종료를 알리므로, 시작을 알린 트랜잭션이 아니면 무시한다.
+     */
+    public static void afterTransactionCompletion(Object transaction) {
+        State state = STATE.get();
+        Scope scope = state.scopes.peek();
+        if (scope != null && scope.transaction == transaction) {
+            state.scopes.pop();
+        }
+        if (state.scopes.isEmpty() && state.suspended == 0) {
+            STATE.remove(); // 스레드 풀 스레드에 남기지 않는다.
+        }
+    }
+
+    private static UUID randomUuid() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long msb = (random.nextLong() & ~0xF000L) | 0x4000L; // version 4
+        long lsb = (random.nextLong() & ~(0x3L << 62)) | (0x2L << 62); // IETF variant
+        return new UUID(msb, lsb);
+    }
+
+    public static final class Suspension implements AutoCloseable {
+
+        private boolean closed;
+
+        private Suspension() {
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            State state = STATE.get();
+            if (state.suspended > 0) {
+                state.suspended--;
+            }
+        }
+    }
+
+    private static final class State {
+        private final Deque<Scope> scopes = new ArrayDeque<>();
+        private LocalDateTime now;
+        private long nowNanos;
+        private int suspended;
+    }
+
+    private static final class Scope {
+        private final Object transaction;
+        private String auditor;
+
+        private Scope(Object transaction) {
+            this.transaction = transaction;
+        }
+    }
+}
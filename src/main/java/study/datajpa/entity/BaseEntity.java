@@ -20,7 +20,7 @@ import java.time.LocalDateTime;
 @EntityListeners(AuditingEntityListener.class)
 @MappedSuperclass
 @Getter
-public class BaseEntity extends BaseTimeEntity {
+public abstract class BaseEntity<ID> extends BaseTimeEntity<ID> {
 
     @CreatedBy
     @Column(updatable = false)
@@ -1,19 +1,33 @@
 package study.datajpa.entity;
 
 import lombok.Getter;
+import lombok.Setter;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.domain.Persistable;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import javax.persistence.Column;
 import javax.persistence.EntityListeners;
 import javax.persistence.MappedSuperclass;
+import javax.persistence.Version;
 import java.time.LocalDateTime;
 
+/**
+ * Persistable 공통 처리
+ * 식별자를 직접 할당(혹은 미리 생성)한 엔티티를 save() 하면 스프링 데이터는 id 가 있으므로 기존 엔티티로 보고 merge() 를 호출한다.
+ * merge() 는 INSERT 전에 SELECT 를 한 번 더 한다. (Item 참고)
+ * @Version 이 null 이면 새 엔티티로 판단해서 save() 가 persist() 를 쓰게 한다. (하이버네이트도 persist/merge 에서 같은 규칙을 쓴다)
+ * version 은 persist() 할 때 바로 채워지므로 flush 전에 delete() 해도 기존 엔티티로 본다.
+ * 초기화 전 지연 로딩 참조(프록시, 바이트코드 향상 엔티티)는 version 을 읽을 때 초기화된다.
+ *
+ * 주의: new 로 만든 객체에 이미 있는 행의 id 를 넣고 save() 하면 INSERT 가 나가서 키 중복 오류가 난다.
+ * 준영속 객체를 다시 반영할 때는 조회한 엔티티를 수정하거나 merge() 를 명시적으로 쓴다.
+ */
 @EntityListeners(AuditingEntityListener.class)
 @MappedSuperclass
 @Getter
-public class BaseTimeEntity {
+public abstract class BaseTimeEntity<ID> implements Persistable<ID> {
 
     @CreatedDate
     @Column(updatable = false)
@@ -21,4 +35,13 @@ public class BaseTimeEntity {
 
     @LastModifiedDate
     private LocalDateTime lastModifiedDate;
+
+    @Version // 낙관적 락: 수정할 때 version 이 같을 때만 UPDATE 되고 1 증가 (다르면 OptimisticLockException)
+    @Setter
+    private Long version;
+
+    @Override
+    public boolean isNew() {
+        return version == null;
+    }
 }
@@ -0,0 +1,52 @@
+package study.datajpa.entity;
+
+import org.hibernate.HibernateException;
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.io.Serializable;
+import java.util.Properties;
+
+/**
+ * 블록 단위 시퀀스 식별자 생성기 (pooled-lo)
+ * 그냥 @GeneratedValue 를 쓰면 모든 엔티티가 hibernate_sequence 하나를 increment 1 로 공유하므로
+ * persist 할 때마다 시퀀스 조회 쿼리가 한 번씩 더 나간다.
+ *
+ * - 엔티티마다 별도 시퀀스 (sequence_name 파라미터)
+ * - 시퀀스를 한 번 호출하면 increment_size 개의 식별자 블록을 받아 메모리에서 나눠준다. (pooled-lo)
+ * - 블록 크기는 spring.jpa.properties.datajpa.id.increment_size 로 설정 (엔티티에 increment_size 파라미터가 있으면 그 값 우선)
+ *
+ * 여러 애플리케이션 노드가 동시에 써도 각 노드가 시퀀스에서 받은 값 v 부터 [v, v + increment_size) 구간만 사용하므로 겹치지 않는다.
+ * 단, DB 시퀀스의 increment 와 모든 노드의 increment_size 가 같아야 한다. (블록 크기를 바꾸면 시퀀스도 함께 ALTER)
+ *
+ * 식별자를 미리 할당한 새 엔티티(import, 다른 노드에서 복제)는 시퀀스를 쓰지 않고 할당된 값을 그대로 사용한다.
+ * (persist() 가 받아들이려면 엔티티에 @Version 이 있어야 한다. BaseTimeEntity, JpaBaseEntity 에 있음)
+ */
+public class BlockSequenceGenerator extends SequenceStyleGenerator {
+
+    public static final String STRATEGY = "study.datajpa.entity.BlockSequenceGenerator";
+    public static final String INCREMENT_SIZE_SETTING = "datajpa.id.increment_size";
+    public static final int DEFAULT_BLOCK_SIZE = 50;
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+        if (!params.containsKey(INCREMENT_PARAM)) {
+            Object configured = serviceRegistry.getService(ConfigurationService.class)
+                    .getSettings()
+                    .get(INCREMENT_SIZE_SETTING);
+            params.setProperty(INCREMENT_PARAM, configured != null ? configured.toString() : String.valueOf(DEFAULT_BLOCK_SIZE));
+        }
+        params.putIfAbsent(OPT_PARAM, "pooled-lo");
+        super.configure(type, params, serviceRegistry);
+    }
+
+    @Override
+    public Serializable generate(SharedSessionContractImplementor session, Object object) throws HibernateException {
+        Serializable assigned = session.getEntityPersister(null, object).getIdentifier(object, session);
+        return assigned != null ? assigned : super.generate(session, object);
+    }
+}
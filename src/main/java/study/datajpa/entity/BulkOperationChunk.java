@@ -0,0 +1,36 @@
+package study.datajpa.entity;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import java.time.LocalDateTime;
+
+/**
+ * 청크 단위 벌크 연산의 완료 기록 (체크포인트)
+ * 청크 UPDATE 와 같은 트랜잭션에서 저장되므로 "기록이 있으면 그 청크는 반영됨" 이 보장된다.
+ * 실패 후 다시 실행하면 기록이 있는 청크는 건너뛴다. (age = age + 1 같은 연산이 두 번 반영되지 않음)
+ */
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class BulkOperationChunk {
+
+    @Id
+    private String id; // 연산이름:청크시작id
+
+    private String operation;
+    private long chunkStart;
+    private int rowsUpdated;
+    private LocalDateTime completedAt;
+
+    public BulkOperationChunk(String operation, long chunkStart, int rowsUpdated) {
+        this.id = operation + ":" + chunkStart;
+        this.operation = operation;
+        this.chunkStart = chunkStart;
+        this.rowsUpdated = rowsUpdated;
+        this.completedAt = LocalDateTime.now();
+    }
+}
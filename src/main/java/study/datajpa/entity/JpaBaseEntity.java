@@ -1,11 +1,14 @@
 package study.datajpa.entity;
 
 import lombok.Getter;
+import lombok.Setter;
+import org.springframework.data.domain.Persistable;
 
 import javax.persistence.Column;
 import javax.persistence.MappedSuperclass;
 import javax.persistence.PrePersist;
 import javax.persistence.PreUpdate;
+import javax.persistence.Version;
 import java.time.LocalDateTime;
 
 
@@ -15,24 +18,41 @@ import java.time.LocalDateTime;
  * JPA 주요 이벤트 어노테이션
  * @PrePersist, @PostPersist
  * @PreUpdate, @PostUpdate
+ *
+ * Persistable: BaseTimeEntity 와 같이 version 이 null 이면 새 엔티티로 판단해서 save() 가 merge() (SELECT + INSERT) 대신 persist() 를 쓰게 한다.
  */
 @Getter
 @MappedSuperclass
-public class JpaBaseEntity {
+public abstract class JpaBaseEntity<ID> implements Persistable<ID> {
 
     @Column(updatable = false)
     private LocalDateTime createdDate;
     private LocalDateTime updatedDate;
 
+    @Version
+    @Setter
+    private Long version;
+
+    @Override
+    public boolean isNew() {
+        return version == null;
+    }
+
     @PrePersist
     public void prePersist() {
-        LocalDateTime now = LocalDateTime.now();
+        if (AuditingContext.isSuspended()) {
+            return;
+        }
+        LocalDateTime now = AuditingContext.now(); // 1ms 안의 저장은 시계를 다시 읽지 않는다.
         createdDate = now;
         updatedDate = now;
     }
 
     @PreUpdate
     public void preUpdate() {
-        updatedDate = LocalDateTime.now();
+        if (AuditingContext.isSuspended()) {
+            return;
+        }
+        updatedDate = AuditingContext.now();
     }
 }
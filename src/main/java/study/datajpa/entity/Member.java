@@ -1,6 +1,12 @@
 package study.datajpa.entity;
 
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import study.datajpa.repository.MemberCountListener;
+import study.datajpa.repository.UsernameFilterListener;
 
 import javax.persistence.*;
 
@@ -10,13 +16,21 @@ import javax.persistence.*;
 @ToString(of = {"id", "username", "age"})   // toString() 메소드를 자동으로 생성!(단,! 연관관계 있는 필드는 넣어주지 않는 것이 좋다! 무한루프에 빠질 수 있음!)
 @NamedQuery(
         name = "Member.findByUsername",
-        query = "select m from Member m where m.username = :username"
+        query = "select m from Member m where m.username = :username",
+        hints = @QueryHint(name = "org.hibernate.cacheable", value = "true") // 쿼리 캐시
 )
 @NamedEntityGraph(name = "Member.all", attributeNodes = @NamedAttributeNode("team"))
-public class Member extends BaseEntity { //Auditing 관련 Member 클래스 부분
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE) // 2차 캐시 (id 조회 시 DB 생략)
+@EntityListeners({MemberCountListener.class, UsernameFilterListener.class}) // 저장/수정/삭제 시 count 캐시 무효화, username 블룸 필터 갱신
+@Table(indexes = @Index(name = "idx_member_username_id", columnList = "username, member_id")) // 키셋 페이징 (username, member_id) 정렬/탐색용
+public class Member extends BaseEntity<Long> { //Auditing 관련 Member 클래스 부분
 //public class Member {
 
-    @Id @GeneratedValue
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "member_seq_generator")
+    @GenericGenerator(name = "member_seq_generator", strategy = BlockSequenceGenerator.STRATEGY,
+            parameters = @Parameter(name = "sequence_name", value = "member_seq")) // 엔티티 전용 시퀀스 + 블록 할당
     @Column(name = "member_id")
     private Long id;
     private String username;
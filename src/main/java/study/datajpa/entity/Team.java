@@ -1,6 +1,10 @@
 package study.datajpa.entity;
 
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 
 import javax.persistence.*;
 import java.util.ArrayList;
@@ -10,13 +14,21 @@ import java.util.List;
 @Getter @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @ToString(of = {"id", "name"})
-public class Team extends JpaBaseEntity {
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+public class Team extends JpaBaseEntity<Long> {
 
-    @Id @GeneratedValue
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "team_seq_generator")
+    @GenericGenerator(name = "team_seq_generator", strategy = BlockSequenceGenerator.STRATEGY,
+            parameters = @Parameter(name = "sequence_name", value = "team_seq"))
     @Column(name = "team_id")
     private Long id;
     private String name;
 
+    // 컬렉션 캐시 (회원 id 목록만 저장, 회원 자체는 Member 리전)
+    // 연관관계 주인(Member.team)이 바뀌면 auto_evict_collection_cache 가 비운다. (벌크 연산은 하이버네이트가 리전째 비움)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @OneToMany(mappedBy = "team") // 왜래키가 없는 부분에 mappedby 하는 것을 추천!
     private List<Member> members = new ArrayList<>();
 
@@ -0,0 +1,26 @@
+package study.datajpa.monitor;
+
+import com.p6spy.engine.common.ConnectionInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+
+/**
+ * 커넥션 풀에서 커넥션을 얻는 데 걸린 시간 (스레드별 누적)
+ * 호출 전후의 누적값 차이로 구간별 대기 시간을 구한다. (RepositoryMetricsAspect)
+ */
+@Component
+public class ConnectionAcquireTracker extends SimpleJdbcEventListener {
+
+    private final ThreadLocal<long[]> acquiredNanos = ThreadLocal.withInitial(() -> new long[1]);
+
+    @Override
+    public void onAfterGetConnection(ConnectionInformation connectionInformation, SQLException e) {
+        acquiredNanos.get()[0] += connectionInformation.getTimeToGetConnectionNs();
+    }
+
+    public long currentNanos() {
+        return acquiredNanos.get()[0];
+    }
+}
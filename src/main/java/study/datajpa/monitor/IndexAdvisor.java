@@ -0,0 +1,350 @@
+package study.datajpa.monitor;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.type.Type;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.data.repository.query.parser.Part;
+import org.springframework.data.repository.query.parser.PartTree;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.NamedQueries;
+import javax.persistence.NamedQuery;
+import javax.persistence.metamodel.EntityType;
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 인덱스 점검 (애플리케이션 시작 시)
+ * ddl-auto: create 는 PK 외에 @Table(indexes) 로 선언한 인덱스만 만든다. 조회 조건 컬럼에 인덱스가 없으면 운영에서 테이블 풀 스캔.
+ *
+ * 1. 리포지토리 쿼리 메서드(메서드 이름 쿼리, @Query)와 엔티티의 @NamedQuery 에서 조건(where)/정렬(order by) 컬럼을 뽑는다.
+ *    - 조건 컬럼(= 먼저, 범위/in/like 나중) + 정렬 컬럼 순서로 필요한 인덱스를 만든다.
+ *    - 네이티브 쿼리는 건너뛴다.
+ * 2. JDBC 메타데이터(H2 INFORMATION_SCHEMA)의 인덱스 중 첫 번째 컬럼이 같은 인덱스가 있으면 사용 가능한 것으로 본다.
+ * 3. 없는 인덱스는 경고 로그. datajpa.index-advisor.create-missing = true (dev 프로필) 이면 바로 만든다.
+ *    만든 인덱스도 다음 제안의 커버 여부에 반영한다. (첫 번째 컬럼이 같은 인덱스를 여러 개 만들지 않음)
+ *    DDL 은 if not exists 라서 다른 인스턴스가 먼저 만들었어도 실패하지 않는다.
+ */
+@Slf4j
+@Component
+public class IndexAdvisor {
+
+    private static final Pattern ROOT = Pattern.compile("(?:from|update)\\s+(\\w+)\\s+(?:as\\s+)?(\\w+)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern JOIN = Pattern.compile("join\\s+(?:fetch\\s+)?(\\w+)\\.(\\w+)\\s+(?:as\\s+)?(\\w+)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern CONDITION = Pattern.compile("(\\w+)\\.(\\w+)\\s*(=|<>|!=|>=|<=|>|<|\\blike\\b|\\bin\\b|\\bis\\b)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern ORDER_BY = Pattern.compile("(\\w+)\\.(\\w+)", Pattern.CASE_INSENSITIVE);
+
+    private final ApplicationContext applicationContext;
+    private final EntityManagerFactory emf;
+    private final DataSource dataSource;
+    private final boolean enabled;
+    private final boolean createMissing;
+
+    @Getter
+    private List<Advice> lastReport = Collections.emptyList();
+
+    public IndexAdvisor(ApplicationContext applicationContext,
+                        EntityManagerFactory emf,
+                        DataSource dataSource,
+                        @Value("${datajpa.index-advisor.enabled:true}") boolean enabled,
+                        @Value("${datajpa.index-advisor.create-missing:false}") boolean createMissing) {
+        this.applicationContext = applicationContext;
+        this.emf = emf; // 생성자에서 unwrap 하면 deferred 부트스트랩에서 EntityManagerFactory 가 만들어질 때까지 기다린다.
+        this.dataSource = dataSource;
+        this.enabled = enabled;
+        this.createMissing = createMissing;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            lastReport = advise();
+        } catch (RuntimeException | SQLException e) {
+            log.warn("인덱스 점검 실패", e); // 점검 실패로 애플리케이션이 뜨지 않으면 안 된다.
+        }
+    }
+
+    public List<Advice> advise() throws SQLException {
+        Map<String, Advice> advices = new LinkedHashMap<>();
+        for (AccessPath path : collectAccessPaths()) {
+            path.indexColumns().forEach((table, columns) ->
+                    advices.computeIfAbsent(table + columns, key -> new Advice(table, columns)).methods.add(path.source));
+        }
+
+        try (Connection connection = dataSource.getConnection()) {
+            Map<String, List<List<String>>> existing = new HashMap<>();
+            for (Advice advice : advices.values()) {
+                List<List<String>> indexes = existing.computeIfAbsent(advice.table, table -> indexesOf(connection, table));
+                advice.covered = indexes.stream().anyMatch(index -> index.get(0).equalsIgnoreCase(advice.columns.get(0)));
+                if (advice.covered) {
+                    continue;
+                }
+                if (createMissing) {
+                    try (Statement statement = connection.createStatement()) {
+                        statement.execute(advice.ddl());
+                        advice.created = true;
+                        indexes.add(advice.columns); // 같은 첫 번째 컬럼의 다음 제안은 이 인덱스로 커버
+                        log.info("인덱스 생성: {} ({})", advice.ddl(), advice.methods);
+                    }
+                } else {
+                    log.warn("인덱스 없음 -> 테이블 풀 스캔: {} 사용처={}", advice.ddl(), advice.methods);
+                }
+            }
+        }
+        return new ArrayList<>(advices.values());
+    }
+
+    private List<AccessPath> collectAccessPaths() {
+        List<AccessPath> paths = new ArrayList<>();
+
+        Repositories repositories = new Repositories(applicationContext);
+        for (Class<?> domainType : repositories) {
+            Optional<RepositoryInformation> information = repositories.getRepositoryInformationFor(domainType);
+            if (information.isEmpty()) {
+                continue;
+            }
+            for (Method method : information.get().getQueryMethods()) {
+                String source = method.getDeclaringClass().getSimpleName() + "." + method.getName();
+                Query query = method.getAnnotation(Query.class);
+                if (query != null) {
+                    if (!query.nativeQuery() && !query.value().isEmpty()) {
+                        paths.add(fromJpql(source, query.value()));
+                    }
+                    continue;
+                }
+                String namedQuery = namedQuery(domainType, domainType.getSimpleName() + "." + method.getName());
+                if (namedQuery != null) {
+                    continue; // 엔티티의 @NamedQuery 로 따로 점검
+                }
+                try {
+                    paths.add(fromPartTree(source, new PartTree(method.getName(), domainType), domainType));
+                } catch (RuntimeException e) {
+                    log.debug("메서드 이름 쿼리가 아님: {}", source);
+                }
+            }
+        }
+
+        for (EntityType<?> entity : sessionFactory().getMetamodel().getEntities()) {
+            for (NamedQuery namedQuery : namedQueries(entity.getJavaType())) {
+                paths.add(fromJpql("@NamedQuery " + namedQuery.name(), namedQuery.query()));
+            }
+        }
+        return paths;
+    }
+
+    private AccessPath fromPartTree(String source, PartTree tree, Class<?> domainType) {
+        AccessPath path = new AccessPath(source);
+        for (PartTree.OrPart orPart : tree) {
+            for (Part part : orPart) {
+                path.addFilter(domainType.getName(), part.getProperty().toDotPath(), part.getType() == Part.Type.SIMPLE_PROPERTY);
+            }
+        }
+        for (Sort.Order order : tree.getSort()) {
+            path.addSort(domainType.getName(), order.getProperty());
+        }
+        return path;
+    }
+
+    private AccessPath fromJpql(String source, String jpql) {
+        AccessPath path = new AccessPath(source);
+        Matcher root = ROOT.matcher(jpql);
+        if (!root.find()) {
+            return path;
+        }
+        Map<String, String> aliases = new HashMap<>(); // alias -> 엔티티 이름 + 경로
+        String rootEntity = entityName(root.group(1));
+        aliases.put(root.group(2), "");
+
+        Matcher join = JOIN.matcher(jpql);
+        while (join.find()) {
+            String parent = aliases.get(join.group(1));
+            if (parent != null) {
+                aliases.put(join.group(3), parent + join.group(2) + ".");
+            }
+        }
+
+        String lower = jpql.toLowerCase(Locale.ROOT);
+        int where = lower.indexOf(" where ");
+        int orderBy = lower.indexOf(" order by ");
+        if (where >= 0) {
+            Matcher condition = CONDITION.matcher(jpql.substring(where, orderBy > where ? orderBy : jpql.length()));
+            while (condition.find()) {
+                String prefix = aliases.get(condition.group(1));
+                if (prefix != null) {
+                    path.addFilter(rootEntity, prefix + condition.group(2), "=".equals(condition.group(3)));
+                }
+            }
+        }
+        if (orderBy >= 0) {
+            Matcher order = ORDER_BY.matcher(jpql.substring(orderBy));
+            while (order.find()) {
+                String prefix = aliases.get(order.group(1));
+                if (prefix != null) {
+                    path.addSort(rootEntity, prefix + order.group(2));
+                }
+            }
+        }
+        return path;
+    }
+
+    private SessionFactoryImplementor sessionFactory() {
+        return emf.unwrap(SessionFactoryImplementor.class);
+    }
+
+    private String entityName(String jpqlEntityName) {
+        for (EntityType<?> entity : sessionFactory().getMetamodel().getEntities()) {
+            if (entity.getName().equals(jpqlEntityName)) {
+                return entity.getJavaType().getName();
+            }
+        }
+        return jpqlEntityName;
+    }
+
+    // 경로(team.name)를 따라가서 실제 테이블/컬럼을 찾는다.
+    private Column resolve(String entityName, String dotPath) {
+        AbstractEntityPersister persister = (AbstractEntityPersister) sessionFactory().getMetamodel().entityPersister(entityName);
+        String[] segments = dotPath.split("\\.");
+        for (int i = 0; i < segments.length - 1; i++) {
+            Type type = persister.getPropertyType(segments[i]);
+            if (!(type instanceof org.hibernate.type.EntityType)) {
+                return null; // 임베디드 등은 점검하지 않는다.
+            }
+            persister = (AbstractEntityPersister) sessionFactory().getMetamodel()
+                    .entityPersister(((org.hibernate.type.EntityType) type).getAssociatedEntityName());
+        }
+        String last = segments[segments.length - 1];
+        if (last.equals(persister.getIdentifierPropertyName())) {
+            return null; // PK
+        }
+        String[] columns = persister.getPropertyColumnNames(last);
+        return columns.length == 1 ? new Column(persister.getTableName(), columns[0]) : null;
+    }
+
+    private List<List<String>> indexesOf(Connection connection, String table) {
+        Map<String, List<String>> indexes = new LinkedHashMap<>();
+        try {
+            DatabaseMetaData metaData = connection.getMetaData();
+            String name = metaData.storesUpperCaseIdentifiers() ? table.toUpperCase(Locale.ROOT) : table;
+            try (ResultSet rs = metaData.getIndexInfo(connection.getCatalog(), null, name, false, true)) {
+                while (rs.next()) {
+                    String indexName = rs.getString("INDEX_NAME");
+                    String column = rs.getString("COLUMN_NAME");
+                    if (indexName != null && column != null) {
+                        indexes.computeIfAbsent(indexName, key -> new ArrayList<>()).add(column);
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            log.warn("인덱스 정보 조회 실패: {}", table, e);
+        }
+        return new ArrayList<>(indexes.values());
+    }
+
+    private static String namedQuery(Class<?> domainType, String name) {
+        return namedQueries(domainType).stream()
+                .filter(namedQuery -> namedQuery.name().equals(name))
+                .map(NamedQuery::query)
+                .findFirst()
+                .orElse(null);
+    }
+
+    private static List<NamedQuery> namedQueries(Class<?> type) {
+        List<NamedQuery> result = new ArrayList<>(Arrays.asList(type.getAnnotationsByType(NamedQuery.class)));
+        NamedQueries container = type.getAnnotation(NamedQueries.class);
+        if (container != null && result.isEmpty()) {
+            result.addAll(Arrays.asList(container.value()));
+        }
+        return result;
+    }
+
+    private class AccessPath {
+
+        private final String source;
+        private final Map<String, List<String>> equalities = new LinkedHashMap<>(); // 테이블 -> 컬럼
+        private final Map<String, List<String>> others = new LinkedHashMap<>();
+
+        AccessPath(String source) {
+            this.source = source;
+        }
+
+        void addFilter(String entityName, String dotPath, boolean equality) {
+            add(equality ? equalities : others, resolve(entityName, dotPath));
+        }
+
+        void addSort(String entityName, String dotPath) {
+            add(others, resolve(entityName, dotPath));
+        }
+
+        private void add(Map<String, List<String>> target, Column column) {
+            if (column == null) {
+                return;
+            }
+            List<String> columns = target.computeIfAbsent(column.table, key -> new ArrayList<>());
+            if (!columns.contains(column.name)) {
+                columns.add(column.name);
+            }
+        }
+
+        // 테이블별 필요한 인덱스 컬럼: = 조건 먼저, 그 다음 범위/정렬
+        Map<String, List<String>> indexColumns() {
+            Map<String, List<String>> result = new LinkedHashMap<>();
+            equalities.forEach((table, columns) -> result.computeIfAbsent(table, key -> new ArrayList<>()).addAll(columns));
+            others.forEach((table, columns) -> {
+                List<String> merged = result.computeIfAbsent(table, key -> new ArrayList<>());
+                columns.stream().filter(column -> !merged.contains(column)).forEach(merged::add);
+            });
+            return result;
+        }
+    }
+
+    private static class Column {
+        private final String table;
+        private final String name;
+
+        Column(String table, String name) {
+            this.table = table;
+            this.name = name;
+        }
+    }
+
+    @Getter
+    public static class Advice {
+        private final String table;
+        private final List<String> columns;
+        private final Set<String> methods = new TreeSet<>();
+        private boolean covered;
+        private boolean created;
+
+        Advice(String table, List<String> columns) {
+            this.table = table;
+            this.columns = columns;
+        }
+
+        public String ddl() {
+            return "create index if not exists idx_" + table + "_" + String.join("_", columns)
+                    + " on " + table + " (" + String.join(", ", columns) + ")";
+        }
+    }
+}
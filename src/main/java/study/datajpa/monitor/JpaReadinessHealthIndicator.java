@@ -0,0 +1,85 @@
+package study.datajpa.monitor;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.health.AbstractHealthIndicator;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.orm.jpa.EntityManagerFactoryInfo;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * JPA 준비 상태 (health 이름: jpaReadiness)
+ * repositories.bootstrap-mode 가 deferred/lazy 면 EntityManagerFactory 를 백그라운드에서 만들기 때문에
+ * 애플리케이션이 떠도 JPA 는 아직 준비 중일 수 있다. 세션 팩토리가 만들어지고 SQL 한 번이 성공하면 UP
+ *
+ * fast-startup 프로필에서 readiness 그룹에 넣는다. (/actuator/health/readiness)
+ */
+@Slf4j
+@Component
+public class JpaReadinessHealthIndicator extends AbstractHealthIndicator {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final AtomicBoolean started = new AtomicBoolean();
+
+    private volatile long readyAtMillis = -1; // JVM 시작 기준
+    private volatile Throwable failure;
+
+    public JpaReadinessHealthIndicator(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @EventListener(ContextRefreshedEvent.class)
+    public void onRefreshed() {
+        if (!started.compareAndSet(false, true)) {
+            return;
+        }
+        Thread thread = new Thread(this::awaitJpa, "jpa-readiness");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    protected void doHealthCheck(Health.Builder builder) {
+        if (readyAtMillis >= 0) {
+            builder.up().withDetail("readyAfterMs", readyAtMillis);
+        } else if (failure != null) {
+            builder.down(failure);
+        } else {
+            builder.outOfService();
+        }
+    }
+
+    public boolean isReady() {
+        return readyAtMillis >= 0;
+    }
+
+    public long getReadyAtMillis() {
+        return readyAtMillis;
+    }
+
+    private void awaitJpa() {
+        try {
+            // 백그라운드 생성 중이면 끝날 때까지 기다린다.
+            EntityManagerFactory nativeFactory = entityManagerFactory instanceof EntityManagerFactoryInfo
+                    ? ((EntityManagerFactoryInfo) entityManagerFactory).getNativeEntityManagerFactory()
+                    : entityManagerFactory;
+            EntityManager em = nativeFactory.createEntityManager();
+            try {
+                em.createQuery("select count(m) from Member m where m.id = 0").getSingleResult();
+            } finally {
+                em.close();
+            }
+            readyAtMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+            log.info("JPA 준비 완료: JVM 시작 후 {}ms", readyAtMillis);
+        } catch (RuntimeException e) {
+            failure = e;
+            log.error("JPA 준비 실패", e);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package study.datajpa.monitor;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.stereotype.Component;
+import study.datajpa.repository.ReadOnlyQuery;
+
+import javax.persistence.QueryHint;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+
+/**
+ * 리포지토리 메서드별 읽기 전용 여부 (시작 시 로그)
+ * CRUD 기본 메서드(findById 등)는 빼고 쿼리 메서드와 사용자 정의 메서드만 본다.
+ *
+ * - READ_ONLY_QUERY: @ReadOnlyQuery (읽기 전용 + 자동 flush 안 함 + fetch size)
+ * - READ_ONLY_HINT : org.hibernate.readOnly 힌트만 (쿼리 전 자동 flush 는 한다)
+ * - MODIFYING      : @Modifying 벌크 연산
+ * - DEFAULT        : 엔티티 스냅샷을 만들고 쓰기 트랜잭션 안에서는 쿼리 전에 자동 flush
+ */
+@Slf4j
+@Component
+public class ReadOnlyQueryReport {
+
+    public enum Kind {READ_ONLY_QUERY, READ_ONLY_HINT, MODIFYING, DEFAULT}
+
+    private final ApplicationContext applicationContext;
+    private final boolean enabled;
+
+    public ReadOnlyQueryReport(ApplicationContext applicationContext,
+                               @Value("${datajpa.read-only-query.report:true}") boolean enabled) {
+        this.applicationContext = applicationContext;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        if (!enabled) {
+            return;
+        }
+        Map<Kind, List<String>> report = report();
+        log.info("리포지토리 메서드 읽기 전용 점검: @ReadOnlyQuery {}개, readOnly 힌트만 {}개, 벌크 수정 {}개, 일반 {}개",
+                report.get(Kind.READ_ONLY_QUERY).size(), report.get(Kind.READ_ONLY_HINT).size(),
+                report.get(Kind.MODIFYING).size(), report.get(Kind.DEFAULT).size());
+        report.forEach((kind, methods) -> log.info("  {}: {}", kind, methods));
+    }
+
+    public Map<Kind, List<String>> report() {
+        Map<Kind, TreeSet<String>> methodsByKind = new EnumMap<>(Kind.class);
+        for (Kind kind : Kind.values()) {
+            methodsByKind.put(kind, new TreeSet<>());
+        }
+        Repositories repositories = new Repositories(applicationContext);
+        for (Class<?> domainType : repositories) {
+            Optional<RepositoryInformation> information = repositories.getRepositoryInformationFor(domainType);
+            if (information.isEmpty()) {
+                continue;
+            }
+            Class<?> repositoryInterface = information.get().getRepositoryInterface();
+            for (Method method : repositoryInterface.getMethods()) {
+                if (method.isDefault() || Modifier.isStatic(method.getModifiers()) || information.get().isBaseClassMethod(method)) {
+                    continue;
+                }
+                methodsByKind.get(kindOf(method)).add(repositoryInterface.getSimpleName() + "." + method.getName());
+            }
+        }
+        Map<Kind, List<String>> report = new EnumMap<>(Kind.class);
+        methodsByKind.forEach((kind, methods) -> report.put(kind, new ArrayList<>(methods)));
+        return report;
+    }
+
+    static Kind kindOf(Method method) {
+        if (AnnotatedElementUtils.hasAnnotation(method, ReadOnlyQuery.class)) {
+            return Kind.READ_ONLY_QUERY;
+        }
+        if (method.isAnnotationPresent(Modifying.class)) {
+            return Kind.MODIFYING;
+        }
+        QueryHints hints = AnnotatedElementUtils.findMergedAnnotation(method, QueryHints.class);
+        if (hints != null) {
+            for (QueryHint hint : hints.value()) {
+                if (org.hibernate.jpa.QueryHints.HINT_READONLY.equals(hint.name()) && Boolean.parseBoolean(hint.value())) {
+                    return Kind.READ_ONLY_HINT;
+                }
+            }
+        }
+        return Kind.DEFAULT;
+    }
+}
@@ -0,0 +1,165 @@
+package study.datajpa.monitor;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+import study.datajpa.dto.PageCustom;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.BaseStream;
+import java.util.stream.Collectors;
+
+/**
+ * 리포지토리 메서드별 지표
+ * MemberRepository, MemberJpaRepository, TeamJpaRepository 의 모든 메서드를 감싸서 기록한다.
+ *
+ * - repository.invocations: 실행 시간 (p50/p95/p99, max, 호출 수) 최근 2분 기준
+ * - repository.rows: 반환한 행 수 (List, Page, Slice, Optional, 엔티티)
+ * - repository.connection.acquire: 호출 안에서 커넥션을 얻느라 기다린 시간
+ * - repository.errors: 예외로 끝난 호출 수
+ *
+ * datajpa.repository-metrics.slow-threshold 를 넘은 호출은 파라미터와 함께 경고 로그를 남긴다.
+ * 조회는 /internal/repository-metrics
+ */
+@Slf4j
+@Aspect
+@Component
+public class RepositoryMetricsAspect {
+
+    public static final String INVOCATIONS = "repository.invocations";
+    public static final String ROWS = "repository.rows";
+    public static final String CONNECTION_ACQUIRE = "repository.connection.acquire";
+    public static final String ERRORS = "repository.errors";
+
+    private static final int MAX_PARAMETER_LENGTH = 100;
+
+    private final MeterRegistry meterRegistry;
+    private final ConnectionAcquireTracker connectionAcquireTracker;
+    private final long slowThresholdNanos;
+
+    public RepositoryMetricsAspect(MeterRegistry meterRegistry,
+                                   ConnectionAcquireTracker connectionAcquireTracker,
+                                   @Value("${datajpa.repository-metrics.slow-threshold:200ms}") Duration slowThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.connectionAcquireTracker = connectionAcquireTracker;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+    }
+
+    @Around("target(study.datajpa.repository.MemberRepository)" +
+            " || target(study.datajpa.repository.MemberJpaRepository)" +
+            " || target(study.datajpa.repository.TeamJpaRepository)")
+    public Object measure(ProceedingJoinPoint joinPoint) throws Throwable {
+        String repository = repositoryName(joinPoint);
+        String method = joinPoint.getSignature().getName();
+
+        long acquiredBefore = connectionAcquireTracker.currentNanos();
+        long start = System.nanoTime();
+        Object result = null;
+        boolean failed = true;
+        try {
+            result = joinPoint.proceed();
+            failed = false;
+            return result;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            long acquired = connectionAcquireTracker.currentNanos() - acquiredBefore;
+            long rows = failed ? -1 : rows(result);
+            record(repository, method, elapsed, acquired, rows, failed);
+
+            if (elapsed >= slowThresholdNanos) {
+                log.warn("느린 리포지토리 호출 {}.{}({}) {}ms (커넥션 대기 {}ms, rows={}{})",
+                        repository, method, parameters(joinPoint.getArgs()),
+                        TimeUnit.NANOSECONDS.toMillis(elapsed), TimeUnit.NANOSECONDS.toMillis(acquired),
+                        rows, failed ? ", 실패" : "");
+            }
+        }
+    }
+
+    private void record(String repository, String method, long elapsed, long acquired, long rows, boolean failed) {
+        Timer.builder(INVOCATIONS)
+                .tag("repository", repository)
+                .tag("method", method)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry)
+                .record(elapsed, TimeUnit.NANOSECONDS);
+        Timer.builder(CONNECTION_ACQUIRE)
+                .tag("repository", repository)
+                .tag("method", method)
+                .register(meterRegistry)
+                .record(acquired, TimeUnit.NANOSECONDS);
+        if (rows >= 0) {
+            DistributionSummary.builder(ROWS)
+                    .tag("repository", repository)
+                    .tag("method", method)
+                    .register(meterRegistry)
+                    .record(rows);
+        }
+        if (failed) {
+            meterRegistry.counter(ERRORS, "repository", repository, "method", method).increment();
+        }
+    }
+
+    // 스프링 데이터 리포지토리는 프록시이므로 구현 클래스 대신 리포지토리 인터페이스 이름을 쓴다.
+    private static String repositoryName(ProceedingJoinPoint joinPoint) {
+        Class<?> targetClass = joinPoint.getTarget().getClass();
+        for (Class<?> type : targetClass.getInterfaces()) {
+            if (type.getPackageName().startsWith("study.datajpa.repository")) {
+                return type.getSimpleName();
+            }
+        }
+        String name = targetClass.getSimpleName();
+        int cglib = name.indexOf("$$");
+        return cglib > 0 ? name.substring(0, cglib) : name;
+    }
+
+    /**
+     * @return 행 수를 알 수 없는 결과(count, 벌크 연산, Stream)는 -1
+     */
+    static long rows(Object result) {
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Slice) {
+            return ((Slice<?>) result).getNumberOfElements();
+        }
+        if (result instanceof PageCustom) {
+            return ((PageCustom<?>) result).getContent().size();
+        }
+        if (result instanceof Collection) {
+            return ((Collection<?>) result).size();
+        }
+        if (result instanceof Optional) {
+            return ((Optional<?>) result).isPresent() ? 1 : 0;
+        }
+        if (result instanceof Number || result instanceof Boolean || result instanceof Iterable
+                || result instanceof BaseStream || result instanceof Map) {
+            return -1;
+        }
+        return 1;
+    }
+
+    // 컬렉션은 크기만, 긴 문자열은 잘라서 남긴다. (saveAll 등으로 수천 건이 로그에 찍히지 않도록)
+    private static String parameters(Object[] args) {
+        return Arrays.stream(args)
+                .map(arg -> {
+                    if (arg instanceof Collection) {
+                        return arg.getClass().getSimpleName() + "(size=" + ((Collection<?>) arg).size() + ")";
+                    }
+                    String value = String.valueOf(arg);
+                    return value.length() > MAX_PARAMETER_LENGTH ? value.substring(0, MAX_PARAMETER_LENGTH) + "..." : value;
+                })
+                .collect(Collectors.joining(", "));
+    }
+}
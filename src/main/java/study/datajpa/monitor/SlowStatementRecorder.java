@@ -0,0 +1,277 @@
+package study.datajpa.monitor;
+
+import com.p6spy.engine.common.PreparedStatementInformation;
+import com.p6spy.engine.common.ResultSetInformation;
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import study.datajpa.repository.ReadOnlyQueryPostProcessor;
+
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 느린 SQL 기록 + 실행 계획(EXPLAIN)
+ * p6spy 가 가로챈 SQL 중 실행 시간이 datajpa.slow-statements.threshold 이상인 것을 파라미터 값이 들어간 SQL 로 남긴다.
+ * 실행 계획은 별도 스레드에서 다른 커넥션으로 'EXPLAIN <sql>' 을 실행해서 채운다. (요청 스레드는 기다리지 않음)
+ *
+ * - 최근 capacity 건만 메모리에 보관 (오래된 것부터 버림)
+ * - 조회 결과 행 수는 ResultSet 이나 Statement 를 닫을 때까지 센다. 수정 SQL 은 영향받은 행 수
+ *   ResultSet 을 닫지 않고 Statement 만 닫는 코드도 있어서 둘 다 본다. 그래도 안 닫히면 스레드당 MAX_FETCHING 건까지만 센다.
+ * - 실행 시간은 execute 까지 (H2 는 execute 에서 결과를 만든다). fetch 시간은 따로 기록
+ * - EXPLAIN 대기열이 차면 계획 없이 SQL 만 남긴다.
+ *
+ * 조회는 /internal/slow-statements
+ */
+@Slf4j
+@Component
+public class SlowStatementRecorder extends SimpleJdbcEventListener {
+
+    private static final int MAX_SQL_LENGTH = 10_000;
+    private static final String NO_PLAN = "-";
+    private static final int MAX_FETCHING = 64; // 스레드당 행 수를 세고 있는 조회 수 상한
+
+    private final ObjectProvider<DataSource> dataSource; // DataSource 를 p6spy 가 감싸므로 순환 참조를 피해서 나중에 꺼낸다.
+    private final long thresholdNanos;
+    private final int capacity;
+    private final boolean explain;
+
+    private final ArrayDeque<SlowStatement> buffer;
+    private final ThreadLocal<Map<StatementInformation, SlowStatement>> fetching = ThreadLocal.withInitial(IdentityHashMap::new);
+    private final ThreadPoolExecutor explainExecutor;
+    private volatile Thread explainThread;
+
+    public SlowStatementRecorder(ObjectProvider<DataSource> dataSource,
+                                 @Value("${datajpa.slow-statements.threshold:100ms}") Duration threshold,
+                                 @Value("${datajpa.slow-statements.capacity:100}") int capacity,
+                                 @Value("${datajpa.slow-statements.explain:true}") boolean explain) {
+        this.dataSource = dataSource;
+        this.thresholdNanos = threshold.toNanos();
+        this.capacity = capacity;
+        this.explain = explain;
+        this.buffer = new ArrayDeque<>(capacity);
+        this.explainExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(16),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "slow-statement-explain");
+                    thread.setDaemon(true);
+                    explainThread = thread;
+                    return thread;
+                });
+    }
+
+    @Override
+    public void onAfterExecuteQuery(PreparedStatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+        super.onAfterExecuteQuery(statementInformation, timeElapsedNanos, e);
+        SlowStatement slow = record(statementInformation, timeElapsedNanos, 0, e);
+        if (slow != null && e == null) {
+            countRows(statementInformation, slow);
+        }
+    }
+
+    @Override
+    public void onAfterExecuteQuery(StatementInformation statementInformation, long timeElapsedNanos, String sql, SQLException e) {
+        super.onAfterExecuteQuery(statementInformation, timeElapsedNanos, sql, e);
+        SlowStatement slow = record(statementInformation, timeElapsedNanos, 0, e);
+        if (slow != null && e == null) {
+            countRows(statementInformation, slow);
+        }
+    }
+
+    @Override
+    public void onAfterExecuteUpdate(PreparedStatementInformation statementInformation, long timeElapsedNanos, int rowCount, SQLException e) {
+        super.onAfterExecuteUpdate(statementInformation, timeElapsedNanos, rowCount, e);
+        record(statementInformation, timeElapsedNanos, rowCount, e);
+    }
+
+    @Override
+    public void onAfterExecuteUpdate(StatementInformation statementInformation, long timeElapsedNanos, String sql, int rowCount, SQLException e) {
+        super.onAfterExecuteUpdate(statementInformation, timeElapsedNanos, sql, rowCount, e);
+        record(statementInformation, timeElapsedNanos, rowCount, e);
+    }
+
+    @Override
+    public void onAfterResultSetNext(ResultSetInformation resultSetInformation, long timeElapsedNanos, boolean hasNext, SQLException e) {
+        Map<StatementInformation, SlowStatement> pending = fetching.get();
+        if (pending.isEmpty()) {
+            return;
+        }
+        SlowStatement slow = pending.get(resultSetInformation.getStatementInformation());
+        if (slow != null) {
+            slow.fetched(hasNext, timeElapsedNanos);
+        }
+    }
+
+    @Override
+    public void onAfterResultSetClose(ResultSetInformation resultSetInformation, SQLException e) {
+        stopCounting(resultSetInformation.getStatementInformation());
+    }
+
+    @Override
+    public void onAfterStatementClose(StatementInformation statementInformation, SQLException e) {
+        stopCounting(statementInformation);
+    }
+
+    // 테스트용
+    int pendingFetches() {
+        return fetching.get().size();
+    }
+
+    /**
+     * @return 최근 느린 SQL (최신순)
+     */
+    public List<SlowStatement> getStatements() {
+        synchronized (buffer) {
+            List<SlowStatement> statements = new ArrayList<>(buffer);
+            Collections.reverse(statements);
+            return statements;
+        }
+    }
+
+    public void clear() {
+        synchronized (buffer) {
+            buffer.clear();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        explainExecutor.shutdownNow();
+    }
+
+    private SlowStatement record(StatementInformation statementInformation, long timeElapsedNanos, int rowCount, SQLException e) {
+        if (timeElapsedNanos < thresholdNanos || Thread.currentThread() == explainThread) {
+            return null;
+        }
+        String sql = statementInformation.getSqlWithValues();
+        boolean truncated = sql.length() > MAX_SQL_LENGTH;
+        SlowStatement slow = new SlowStatement(truncated ? sql.substring(0, MAX_SQL_LENGTH) + "..." : sql,
+                timeElapsedNanos, rowCount, caller(), e != null ? e.getMessage() : null);
+        synchronized (buffer) {
+            if (buffer.size() == capacity) {
+                buffer.pollFirst();
+            }
+            buffer.addLast(slow);
+        }
+        log.warn("느린 SQL {}ms ({}): {}", slow.getElapsedMillis(), slow.getCaller(), slow.getSql());
+
+        if (explain && !truncated && e == null && explainable(sql)) {
+            try {
+                explainExecutor.execute(() -> slow.plan = explain(sql));
+            } catch (RejectedExecutionException full) {
+                slow.plan = NO_PLAN; // 대기열이 가득 참
+            }
+        } else {
+            slow.plan = NO_PLAN;
+        }
+        return slow;
+    }
+
+    private void countRows(StatementInformation statementInformation, SlowStatement slow) {
+        Map<StatementInformation, SlowStatement> pending = fetching.get();
+        if (pending.size() < MAX_FETCHING) {
+            pending.put(statementInformation, slow);
+        }
+    }
+
+    private void stopCounting(StatementInformation statementInformation) {
+        Map<StatementInformation, SlowStatement> pending = fetching.get();
+        if (!pending.isEmpty()) {
+            pending.remove(statementInformation);
+        }
+    }
+
+    private String explain(String sql) {
+        try (Connection connection = dataSource.getObject().getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("EXPLAIN " + sql)) {
+            StringBuilder plan = new StringBuilder();
+            while (resultSet.next()) {
+                if (plan.length() > 0) {
+                    plan.append(System.lineSeparator());
+                }
+                plan.append(resultSet.getString(1));
+            }
+            return plan.toString();
+        } catch (SQLException | RuntimeException ex) {
+            log.debug("EXPLAIN 실패: {}", sql, ex);
+            return "EXPLAIN 실패: " + ex.getMessage();
+        }
+    }
+
+    // EXPLAIN 은 실행하지 않고 계획만 보여주므로 수정 SQL 도 안전하다.
+    private static boolean explainable(String sql) {
+        String head = sql.stripLeading().toLowerCase(Locale.ROOT);
+        return head.startsWith("select") || head.startsWith("with") || head.startsWith("insert")
+                || head.startsWith("update") || head.startsWith("delete") || head.startsWith("merge");
+    }
+
+    // 이 SQL 을 실행시킨 애플리케이션 코드 위치, 리포지토리를 감싼 애스펙트/인터셉터는 건너뛴다. (느린 SQL 일 때만 구하므로 비용은 괜찮다)
+    private static String caller() {
+        return StackWalker.getInstance().walk(frames -> frames
+                .filter(frame -> frame.getClassName().startsWith("study.datajpa.")
+                        && !frame.getClassName().startsWith(SlowStatementRecorder.class.getName())
+                        && !frame.getClassName().startsWith(ReadOnlyQueryPostProcessor.class.getName())
+                        && !frame.getClassName().endsWith("Aspect"))
+                .findFirst()
+                .map(frame -> frame.getClassName().substring(frame.getClassName().lastIndexOf('.') + 1)
+                        + "." + frame.getMethodName() + ":" + frame.getLineNumber())
+                .orElse("unknown"));
+    }
+
+    @Getter
+    public static class SlowStatement {
+
+        private final LocalDateTime capturedAt = LocalDateTime.now();
+        private final String thread = Thread.currentThread().getName();
+        private final String sql;
+        private final long elapsedMillis;
+        private final String caller;
+        private final String error;
+        private volatile long rows;
+        private volatile long fetchMillis;
+        private volatile String plan; // null 이면 아직 EXPLAIN 중
+
+        @Getter(AccessLevel.NONE)
+        private long fetchNanos;
+
+        SlowStatement(String sql, long elapsedNanos, long rows, String caller, String error) {
+            this.sql = sql;
+            this.elapsedMillis = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+            this.rows = rows;
+            this.caller = caller;
+            this.error = error;
+        }
+
+        // ResultSet 은 한 스레드에서만 읽으므로 동기화 없이 센다.
+        void fetched(boolean hasNext, long elapsedNanos) {
+            fetchNanos += elapsedNanos;
+            fetchMillis = TimeUnit.NANOSECONDS.toMillis(fetchNanos);
+            if (hasNext) {
+                rows++;
+            }
+        }
+    }
+}
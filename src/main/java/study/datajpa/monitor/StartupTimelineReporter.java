@@ -0,0 +1,94 @@
+package study.datajpa.monitor;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+/**
+ * 시작 단계별 소요 시간 요약 로그
+ * DataJpaApplication.main 에서 BufferingApplicationStartup 을 설정했을 때만 동작 (테스트 등에서는 건너뜀)
+ *
+ * - 단계: 스텝 이름별 횟수/합계 (중첩된 스텝은 겹쳐서 더해진다)
+ * - 빈 생성: 오래 걸린 빈 상위 N 개 (하위 빈 생성 시간 포함)
+ * - 리포지토리: spring.data.repository.init (쿼리 메서드 검증 포함)
+ *
+ * 전체 타임라인은 /actuator/startup
+ */
+@Slf4j
+@Component
+public class StartupTimelineReporter {
+
+    private static final int TOP = 10;
+
+    private final ApplicationStartup applicationStartup;
+
+    public StartupTimelineReporter(ApplicationStartup applicationStartup) {
+        this.applicationStartup = applicationStartup;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void report(ApplicationReadyEvent event) {
+        if (!(applicationStartup instanceof BufferingApplicationStartup)) {
+            return;
+        }
+        List<StartupTimeline.TimelineEvent> events =
+                ((BufferingApplicationStartup) applicationStartup).getBufferedTimeline().getEvents();
+
+        Map<String, long[]> phases = new LinkedHashMap<>(); // 이름 -> {횟수, 합계 ms}
+        for (StartupTimeline.TimelineEvent timelineEvent : events) {
+            long[] phase = phases.computeIfAbsent(timelineEvent.getStartupStep().getName(), name -> new long[2]);
+            phase[0]++;
+            phase[1] += timelineEvent.getDuration().toMillis();
+        }
+
+        StringBuilder report = new StringBuilder("시작 타임라인 (준비까지 ")
+                .append(event.getTimeTaken() != null ? event.getTimeTaken().toMillis() : -1).append("ms)");
+        report.append(System.lineSeparator()).append("[단계]");
+        phases.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, long[]> entry) -> entry.getValue()[1]).reversed())
+                .limit(TOP)
+                .forEach(entry -> report.append(System.lineSeparator())
+                        .append(String.format("  %6dms %5d회  %s", entry.getValue()[1], entry.getValue()[0], entry.getKey())));
+
+        appendTop(report, "[빈 생성]", events, "spring.beans.instantiate", "beanName");
+        appendTop(report, "[리포지토리]", events, "spring.data.repository.init", "repository");
+        log.info(report.toString());
+    }
+
+    private static void appendTop(StringBuilder report, String title, List<StartupTimeline.TimelineEvent> events,
+                                  String stepName, String tagKey) {
+        List<StartupTimeline.TimelineEvent> top = events.stream()
+                .filter(timelineEvent -> stepName.equals(timelineEvent.getStartupStep().getName()))
+                .sorted(Comparator.comparing(StartupTimeline.TimelineEvent::getDuration).reversed())
+                .limit(TOP)
+                .collect(Collectors.toList());
+        if (top.isEmpty()) {
+            return;
+        }
+        report.append(System.lineSeparator()).append(title);
+        for (StartupTimeline.TimelineEvent timelineEvent : top) {
+            report.append(System.lineSeparator()).append(String.format("  %6dms  %s",
+                    timelineEvent.getDuration().toMillis(), tag(timelineEvent.getStartupStep(), tagKey)));
+        }
+    }
+
+    private static String tag(StartupStep step, String key) {
+        return StreamSupport.stream(step.getTags().spliterator(), false)
+                .filter(tag -> key.equals(tag.getKey()))
+                .map(StartupStep.Tag::getValue)
+                .findFirst()
+                .orElse("?");
+    }
+}
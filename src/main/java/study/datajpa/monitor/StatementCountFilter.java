@@ -0,0 +1,53 @@
+package study.datajpa.monitor;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * HTTP 요청 단위 SQL 개수 집계
+ * 같은 SELECT 가 반복되면(N+1 의심) 또는 요청당 예산을 넘으면 경고 로그를 남기고 jdbc.statements 지표로 기록한다.
+ */
+@Slf4j
+@Component
+public class StatementCountFilter extends OncePerRequestFilter {
+
+    private final StatementCounter statementCounter;
+    private final int requestBudget;
+
+    public StatementCountFilter(StatementCounter statementCounter,
+                                @Value("${datajpa.statements.request-budget:20}") int requestBudget) {
+        this.statementCounter = statementCounter;
+        this.requestBudget = requestBudget;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        try (StatementCounter.Scope scope = statementCounter.open()) {
+            filterChain.doFilter(request, response);
+
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+            StatementStats stats = scope.getStats();
+            statementCounter.publish("request", uri, stats);
+
+            Map<String, Integer> repeated = stats.getRepeatedSelects(statementCounter.getRepeatThreshold());
+            if (!repeated.isEmpty()) {
+                log.warn("N+1 의심 {} {}: 같은 SELECT 반복 {}", request.getMethod(), uri, repeated);
+            }
+            if (stats.getCount() > requestBudget) {
+                log.warn("SQL 예산 초과 {} {}: {}건 (예산 {}건)", request.getMethod(), uri, stats.getCount(), requestBudget);
+            }
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package study.datajpa.monitor;
+
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.SQLException;
+
+/**
+ * SQL 실행 횟수 카운터
+ * p6spy 스타터가 JdbcEventListener 빈을 자동으로 등록해주므로 실제로 JDBC 로 나간 SQL 을 센다. (배치는 executeBatch 1번)
+ *
+ * - 범위(Scope): HTTP 요청(StatementCountFilter)이나 테스트에서 open() ~ close() 사이의 SQL
+ * - 트랜잭션: 트랜잭션이 끝날 때 jdbc.statements{scope=transaction} 로 기록
+ *
+ * 테스트에서 쿼리 개수 검증
+ * <pre>
+ * try (StatementCounter.Scope scope = statementCounter.open()) {
+ *     memberRepository.findEntityGraphByUsername("member1");
+ *     scope.assertAtMost(2);
+ * }
+ * </pre>
+ */
+@Component
+public class StatementCounter extends SimpleJdbcEventListener {
+
+    private final ThreadLocal<Scope> currentScope = new ThreadLocal<>();
+    private final Object transactionKey = new Object();
+
+    private final MeterRegistry meterRegistry;
+    private final int repeatThreshold;
+
+    public StatementCounter(MeterRegistry meterRegistry,
+                            @Value("${datajpa.statements.repeat-threshold:3}") int repeatThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.repeatThreshold = repeatThreshold;
+    }
+
+    public Scope open() {
+        Scope scope = new Scope(currentScope.get());
+        currentScope.set(scope);
+        return scope;
+    }
+
+    public int getRepeatThreshold() {
+        return repeatThreshold;
+    }
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+        String sql = statementInformation.getSql();
+        Scope scope = currentScope.get();
+        if (scope != null) {
+            scope.stats.record(sql);
+        }
+        StatementStats transactionStats = transactionStats();
+        if (transactionStats != null) {
+            transactionStats.record(sql);
+        }
+    }
+
+    void publish(String scope, String uri, StatementStats stats) {
+        DistributionSummary.builder("jdbc.statements")
+                .description("SQL statements per " + scope)
+                .tag("scope", scope)
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(stats.getCount());
+        int repeated = stats.getRepeatedSelects(repeatThreshold).size();
+        if (repeated > 0) {
+            Counter.builder("jdbc.statements.repeated")
+                    .description("Repeated identical SELECTs (N+1 suspects)")
+                    .tag("scope", scope)
+                    .tag("uri", uri)
+                    .register(meterRegistry)
+                    .increment(repeated);
+        }
+    }
+
+    private StatementStats transactionStats() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        StatementStats stats = (StatementStats) TransactionSynchronizationManager.getResource(transactionKey);
+        if (stats == null) {
+            StatementStats newStats = new StatementStats();
+            TransactionSynchronizationManager.bindResource(transactionKey, newStats);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(transactionKey);
+                    publish("transaction", "none", newStats);
+                }
+            });
+            stats = newStats;
+        }
+        return stats;
+    }
+
+    public class Scope implements AutoCloseable {
+
+        private final Scope previous;
+        private final StatementStats stats = new StatementStats();
+
+        private Scope(Scope previous) {
+            this.previous = previous;
+        }
+
+        public int getCount() {
+            return stats.getCount();
+        }
+
+        public StatementStats getStats() {
+            return stats;
+        }
+
+        /**
+         * 쿼리 예산 검증 - 넘으면 실행된 SQL 목록과 함께 예외
+         */
+        public void assertAtMost(int budget) {
+            if (stats.getCount() > budget) {
+                throw new IllegalStateException("SQL 실행 횟수 초과: " + stats.getCount() + " > " + budget
+                        + System.lineSeparator() + stats.getCountBySql());
+            }
+        }
+
+        @Override
+        public void close() {
+            if (previous != null) {
+                currentScope.set(previous);
+            } else {
+                currentScope.remove();
+            }
+        }
+    }
+}
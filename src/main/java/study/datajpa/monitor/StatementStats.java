@@ -0,0 +1,38 @@
+package study.datajpa.monitor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 한 범위(HTTP 요청, 트랜잭션, 테스트 블록) 안에서 실행된 SQL 통계
+ * 파라미터는 ? 로 남아 있는 SQL 문자열 기준으로 묶으므로 "파라미터만 다른 같은 쿼리" 가 한 항목으로 모인다.
+ */
+public class StatementStats {
+
+    private int count;
+    private final Map<String, Integer> countBySql = new LinkedHashMap<>();
+
+    void record(String sql) {
+        count++;
+        countBySql.merge(sql, 1, Integer::sum);
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public Map<String, Integer> getCountBySql() {
+        return countBySql;
+    }
+
+    /**
+     * 같은 SELECT 가 threshold 번 이상 반복된 것 (N+1 의심)
+     */
+    public Map<String, Integer> getRepeatedSelects(int threshold) {
+        return countBySql.entrySet().stream()
+                .filter(e -> e.getValue() >= threshold)
+                .filter(e -> e.getKey().trim().regionMatches(true, 0, "select", 0, 6))
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a, LinkedHashMap::new));
+    }
+}
@@ -0,0 +1,44 @@
+package study.datajpa.repository;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Singular;
+
+import java.util.Map;
+
+/**
+ * 청크 단위로 나눠서 실행할 벌크 UPDATE 정의
+ * JPQL 에는 청크 범위 파라미터 :fromId, :toId 가 있어야 한다.
+ * 벌크 UPDATE 는 @Version 을 올리지 않으므로 버전 컬럼도 직접 증가시킨다.
+ *
+ * <pre>
+ * BulkUpdate.builder()
+ *         .name("member-age-plus")
+ *         .entityClass(Member.class)
+ *         .jpql("update Member m set m.age = m.age + 1, m.version = m.version + 1" +
+ *               " where m.age >= :age and m.id between :fromId and :toId")
+ *         .parameter("age", 20)
+ *         .chunkSize(1000)
+ *         .build();
+ * </pre>
+ */
+@Getter
+@Builder
+public class BulkUpdate {
+
+    private final String name;          // 재시작 시 체크포인트를 찾는 키
+    private final Class<?> entityClass; // id 범위를 구하고 2차 캐시를 비울 엔티티
+    private final String jpql;
+
+    @Singular
+    private final Map<String, Object> parameters;
+
+    @Builder.Default
+    private final String idAttribute = "id";
+
+    @Builder.Default
+    private final int chunkSize = 1000;
+
+    @Builder.Default
+    private final int parallelism = 1; // 2 이상이면 청크를 각자의 커넥션에서 병렬 실행 (커넥션 풀 크기 이하로)
+}
@@ -0,0 +1,177 @@
+package study.datajpa.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+import study.datajpa.entity.BulkOperationChunk;
+import study.datajpa.entity.Member;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 청크 단위 벌크 UPDATE 실행기
+ * update member set age = age + 1 where age >= ? 를 한 번에 실행하면 전체 행 락을 문장이 끝날 때까지 잡고 언두 로그도 커진다.
+ *
+ * - 식별자 범위 [fromId, toId] 청크로 나눠서 청크마다 별도 트랜잭션으로 커밋
+ * - parallelism 이 2 이상이면 청크들을 별도 커넥션에서 병렬 실행
+ * - 청크 완료 기록(BulkOperationChunk)을 같은 트랜잭션에 남겨서, 실패 후 다시 실행하면 남은 청크만 이어서 실행
+ * - 끝나면 2차 캐시와 (열려 있는) 영속성 컨텍스트를 비워서 오래된 엔티티가 남지 않게 한다.
+ * - Member 대상이면 username 블룸 필터를 다시 만든다. (벌크 연산은 UsernameFilterListener 를 거치지 않음)
+ *
+ * 청크마다 커밋하므로 진행 중에는 일부만 반영된 상태가 보인다. 전체 원자성이 필요하면 기존 bulkAgePlus 를 쓴다.
+ */
+@Slf4j
+@Component
+public class BulkUpdateExecutor {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private final EntityManagerFactory emf;
+    private final TransactionTemplate transactionTemplate;
+    private final UsernameBloomFilter usernameBloomFilter;
+
+    public BulkUpdateExecutor(EntityManagerFactory emf, PlatformTransactionManager transactionManager,
+                              UsernameBloomFilter usernameBloomFilter) {
+        this.emf = emf;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.usernameBloomFilter = usernameBloomFilter;
+    }
+
+    public BulkUpdateResult execute(BulkUpdate update) {
+        return execute(update, (completed, total, rows) ->
+                log.info("[{}] {}/{} 청크 완료, {}건 변경", update.getName(), completed, total, rows));
+    }
+
+    public BulkUpdateResult execute(BulkUpdate update, BulkUpdateProgressListener listener) {
+        // 청크마다 커밋해야 하므로 바깥 트랜잭션 안에서는 실행할 수 없다.
+        Assert.state(!TransactionSynchronizationManager.isActualTransactionActive(),
+                "청크 벌크 연산은 트랜잭션 밖에서 실행해야 합니다.");
+
+        List<Long> chunkStarts = chunkStarts(update);
+        Set<Long> completedStarts = completedChunkStarts(update.getName());
+        List<Long> pending = new ArrayList<>();
+        for (Long start : chunkStarts) {
+            if (!completedStarts.contains(start)) {
+                pending.add(start);
+            }
+        }
+
+        int skipped = chunkStarts.size() - pending.size();
+        AtomicInteger completed = new AtomicInteger(skipped);
+        AtomicLong rowsUpdated = new AtomicLong();
+        if (skipped > 0) {
+            log.info("[{}] 이전 실행에서 완료된 청크 {}개 건너뜀", update.getName(), skipped);
+        }
+
+        try {
+            if (update.getParallelism() <= 1) {
+                for (Long start : pending) {
+                    runChunk(update, start, chunkStarts.size(), completed, rowsUpdated, listener);
+                }
+            } else {
+                runParallel(update, pending, chunkStarts.size(), completed, rowsUpdated, listener);
+            }
+        } finally {
+            if (Member.class.isAssignableFrom(update.getEntityClass()) && rowsUpdated.get() > 0) {
+                usernameBloomFilter.rebuildAfterBulkChange(); // 실패해도 이미 커밋된 청크가 있으므로 다시 만든다.
+            }
+        }
+
+        // 모두 성공했으면 체크포인트 정리
+        transactionTemplate.executeWithoutResult(status ->
+                em.createQuery("delete from BulkOperationChunk c where c.operation = :operation")
+                        .setParameter("operation", update.getName())
+                        .executeUpdate());
+        clearStaleEntities(update.getEntityClass());
+
+        return new BulkUpdateResult(chunkStarts.size(), pending.size(), skipped, rowsUpdated.get());
+    }
+
+    private void runParallel(BulkUpdate update, List<Long> pending, int totalChunks,
+                             AtomicInteger completed, AtomicLong rowsUpdated, BulkUpdateProgressListener listener) {
+        ExecutorService executor = Executors.newFixedThreadPool(update.getParallelism());
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (Long start : pending) {
+                futures.add(executor.submit(() -> runChunk(update, start, totalChunks, completed, rowsUpdated, listener)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            // 실패한 청크 이후 남은 청크는 다음 실행에서 이어서 처리
+            throw new IllegalStateException("[" + update.getName() + "] 청크 실행 실패", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("[" + update.getName() + "] 중단됨", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void runChunk(BulkUpdate update, long start, int totalChunks,
+                          AtomicInteger completed, AtomicLong rowsUpdated, BulkUpdateProgressListener listener) {
+        long end = start + update.getChunkSize() - 1;
+        Integer rows = transactionTemplate.execute(status -> {
+            Query query = em.createQuery(update.getJpql());
+            update.getParameters().forEach(query::setParameter);
+            int updated = query.setParameter("fromId", start)
+                    .setParameter("toId", end)
+                    .executeUpdate();
+            em.persist(new BulkOperationChunk(update.getName(), start, updated)); // UPDATE 와 같은 트랜잭션에 완료 기록
+            return updated;
+        });
+        listener.onChunk(completed.incrementAndGet(), totalChunks, rowsUpdated.addAndGet(rows));
+    }
+
+    // 청크 시작 id 는 chunkSize 의 배수로 맞춘다. (재실행 시에도 같은 경계)
+    private List<Long> chunkStarts(BulkUpdate update) {
+        String entityName = emf.getMetamodel().entity(update.getEntityClass()).getName();
+        Object[] range = (Object[]) em.createQuery("select min(e." + update.getIdAttribute() + "), max(e." + update.getIdAttribute() + ")"
+                        + " from " + entityName + " e")
+                .getSingleResult();
+
+        List<Long> starts = new ArrayList<>();
+        if (range[0] == null) {
+            return starts;
+        }
+        long chunkSize = update.getChunkSize();
+        long min = ((Number) range[0]).longValue();
+        long max = ((Number) range[1]).longValue();
+        for (long start = Math.floorDiv(min, chunkSize) * chunkSize; start <= max; start += chunkSize) {
+            starts.add(start);
+        }
+        return starts;
+    }
+
+    private Set<Long> completedChunkStarts(String operation) {
+        return new HashSet<>(em.createQuery(
+                        "select c.chunkStart from BulkOperationChunk c where c.operation = :operation", Long.class)
+                .setParameter("operation", operation)
+                .getResultList());
+    }
+
+    private void clearStaleEntities(Class<?> entityClass) {
+        emf.getCache().evict(entityClass);
+        // OSIV 등으로 현재 스레드에 열려 있는 영속성 컨텍스트가 있으면 변경 전 엔티티가 남아 있으므로 비운다.
+        EntityManagerHolder holder = (EntityManagerHolder) TransactionSynchronizationManager.getResource(emf);
+        if (holder != null) {
+            holder.getEntityManager().clear();
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package study.datajpa.repository;
+
+@FunctionalInterface
+public interface BulkUpdateProgressListener {
+
+    void onChunk(int completedChunks, int totalChunks, long rowsUpdated);
+}
@@ -0,0 +1,16 @@
+package study.datajpa.repository;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class BulkUpdateResult {
+
+    private final int totalChunks;
+    private final int executedChunks;
+    private final int skippedChunks;  // 이전 실행에서 이미 완료된 청크
+    private final long rowsUpdated;
+}
@@ -0,0 +1,133 @@
+package study.datajpa.repository;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * 페이지 내용과 count 쿼리 동시 실행
+ * 스프링 데이터는 내용 조회 -> count 조회를 같은 커넥션에서 차례로 실행하므로 응답 시간이 두 쿼리의 합이 된다.
+ * count 를 queryExecutor 의 다른 커넥션에서 먼저 시작하고 요청 스레드는 내용을 조회한다. -> 응답 시간은 둘 중 긴 쪽
+ *
+ * - 내용이 페이지 크기보다 적으면 전체 개수를 알 수 있으므로 count 를 기다리지 않는다. (아직 시작 전이면 취소)
+ * - datajpa.paging.concurrent-count = false 이거나, 쓰기 트랜잭션 안이면 기존처럼 순차 실행한다.
+ *   (다른 커넥션의 count 는 아직 커밋하지 않은 변경을 볼 수 없다)
+ * - count 가 count-timeout 안에 시작도 못 했으면 취소하고 요청 스레드에서 직접 count 한다. (이미 실행 중이면 끝까지 기다림)
+ *   읽기 전용 트랜잭션의 요청 스레드는 커넥션을 잡은 채 기다리므로, 요청이 몰려 풀이 바닥나면
+ *   count 가 커넥션을 못 얻어 커넥션 타임아웃까지 서로 기다리게 된다. 직접 실행하면 이미 잡은 커넥션을 쓴다.
+ */
+@Component
+public class ConcurrentPageExecutor {
+
+    private final ThreadPoolTaskExecutor queryExecutor;
+    private final TransactionTemplate countTransaction;
+    private final boolean enabled;
+    private final long countTimeoutNanos;
+
+    public ConcurrentPageExecutor(@Qualifier("queryExecutor") ThreadPoolTaskExecutor queryExecutor,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${datajpa.paging.concurrent-count:false}") boolean enabled,
+                                  @Value("${datajpa.paging.count-timeout:1s}") Duration countTimeout) {
+        this.queryExecutor = queryExecutor;
+        this.countTransaction = new TransactionTemplate(transactionManager);
+        this.countTransaction.setReadOnly(true);
+        this.enabled = enabled;
+        this.countTimeoutNanos = countTimeout.toNanos();
+    }
+
+    public <T> Page<T> execute(Pageable pageable, Supplier<List<T>> contentQuery, LongSupplier countQuery) {
+        if (!isConcurrent(pageable)) {
+            return PageableExecutionUtils.getPage(contentQuery.get(), pageable, countQuery);
+        }
+
+        Future<Long> total = queryExecutor.submit(() -> countTransaction.execute(status -> countQuery.getAsLong()));
+        List<T> content;
+        try {
+            content = contentQuery.get();
+        } catch (RuntimeException e) {
+            total.cancel(false);
+            throw e;
+        }
+
+        long inferred = inferTotal(content, pageable);
+        if (inferred >= 0) {
+            total.cancel(false); // 실행 중인 count 는 중단하지 않는다. (인터럽트하면 커넥션이 끊길 수 있음)
+            return new PageImpl<>(content, pageable, inferred);
+        }
+        return new PageImpl<>(content, pageable, await(total, countQuery));
+    }
+
+    private boolean isConcurrent(Pageable pageable) {
+        if (!enabled || pageable.isUnpaged()) {
+            return false;
+        }
+        return !TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    // PageableExecutionUtils 와 같은 규칙: 첫 페이지가 덜 찼거나, 마지막 페이지가 덜 찼으면 count 불필요
+    private static long inferTotal(List<?> content, Pageable pageable) {
+        if (pageable.getOffset() == 0 && content.size() < pageable.getPageSize()) {
+            return content.size();
+        }
+        if (!content.isEmpty() && content.size() < pageable.getPageSize()) {
+            return pageable.getOffset() + content.size();
+        }
+        return -1;
+    }
+
+    private long await(Future<Long> total, LongSupplier countQuery) {
+        try {
+            return total.get(countTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            if (total.cancel(false)) {
+                return countQuery.getAsLong(); // 아직 시작 전 (스레드/커넥션 부족) -> 요청 스레드에서 직접
+            }
+            return await(total); // 이미 실행 중인 느린 count 는 다시 실행하지 않고 끝까지 기다린다.
+        } catch (InterruptedException e) {
+            throw interrupted(total, e);
+        } catch (ExecutionException e) {
+            throw countFailure(e);
+        }
+    }
+
+    private static long await(Future<Long> total) {
+        try {
+            return total.get();
+        } catch (InterruptedException e) {
+            throw interrupted(total, e);
+        } catch (ExecutionException e) {
+            throw countFailure(e);
+        }
+    }
+
+    private static RuntimeException interrupted(Future<Long> total, InterruptedException e) {
+        Thread.currentThread().interrupt();
+        total.cancel(false);
+        return new IllegalStateException("count 쿼리 대기 중 인터럽트", e);
+    }
+
+    private static RuntimeException countFailure(ExecutionException e) {
+        if (e.getCause() instanceof RuntimeException) {
+            return (RuntimeException) e.getCause();
+        }
+        return new IllegalStateException("count 쿼리 실패", e.getCause());
+    }
+}
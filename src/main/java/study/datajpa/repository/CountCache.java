@@ -0,0 +1,107 @@
+package study.datajpa.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * 페이징 count 쿼리 결과 캐시
+ * 트래픽이 많으면 page 조회보다 count(*) 가 더 비싸다. count 결과를 (쿼리 + 파라미터) 단위로 잠시 보관한다.
+ *
+ * - Member 가 저장/삭제되면 MemberCountListener 가 전체를 무효화한다.
+ * - 벌크 연산(bulkAgePlus 등)은 엔티티 리스너를 거치지 않으므로 TTL 이 지나야 갱신된다.
+ * - estimate 옵션을 켜면 캐시가 비어 있을 때 정확한 count 대신 DB 통계 기반 추정치를 돌려준다.
+ */
+@Component
+public class CountCache {
+
+    private final Map<Key, Entry> cache = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+    private final boolean estimate;
+
+    public CountCache(@Value("${datajpa.count-cache.ttl:30s}") Duration ttl,
+                      @Value("${datajpa.count-cache.estimate:false}") boolean estimate) {
+        this.ttlNanos = ttl.toNanos();
+        this.estimate = estimate;
+    }
+
+    /**
+     * @param exactCounter 정확한 count 쿼리
+     * @param estimator    추정치 (없으면 null, 추정 모드에서도 정확한 count 를 사용)
+     */
+    public Count count(String query, Object[] params, LongSupplier exactCounter, LongSupplier estimator) {
+        Key key = new Key(query, params);
+        long now = System.nanoTime();
+
+        Entry entry = cache.get(key);
+        if (entry != null && now - entry.createdAt < ttlNanos) {
+            return entry.count;
+        }
+
+        Count count = estimate && estimator != null
+                ? new Count(estimator.getAsLong(), false)
+                : new Count(exactCounter.getAsLong(), true);
+        cache.put(key, new Entry(count, now));
+        return count;
+    }
+
+    public void invalidateAll() {
+        cache.clear();
+    }
+
+    public static class Count {
+        private final long total;
+        private final boolean exact;
+
+        public Count(long total, boolean exact) {
+            this.total = total;
+            this.exact = exact;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+
+        public boolean isExact() {
+            return exact;
+        }
+    }
+
+    private static class Entry {
+        private final Count count;
+        private final long createdAt;
+
+        Entry(Count count, long createdAt) {
+            this.count = count;
+            this.createdAt = createdAt;
+        }
+    }
+
+    private static class Key {
+        private final String query;
+        private final Object[] params;
+
+        Key(String query, Object[] params) {
+            this.query = query;
+            this.params = params;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return query.equals(other.query) && Arrays.equals(params, other.params);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * query.hashCode() + Arrays.hashCode(params);
+        }
+    }
+}
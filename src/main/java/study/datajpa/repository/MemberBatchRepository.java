@@ -0,0 +1,22 @@
+package study.datajpa.repository;
+
+import study.datajpa.entity.Member;
+
+/**
+ * 대량 저장용 배치 쓰기
+ * save() 를 반복 호출하면 INSERT 마다 DB 왕복이 생기고, 저장한 엔티티가 트랜잭션 끝까지 영속성 컨텍스트에 쌓인다.
+ * - hibernate.jdbc.batch_size 만큼 INSERT/UPDATE 를 모아서 JDBC 배치로 전송
+ * - 같은 주기로 flush 하고 저장한 엔티티를 detach 해서 영속성 컨텍스트 크기를 일정하게 유지
+ *
+ * 바깥 트랜잭션이 있으면 거기에 참여한다. (REQUIRED)
+ * - 호출 전에 바깥 트랜잭션이 조회해 둔 엔티티는 그대로 영속 상태로 남는다. (clear 하지 않는다)
+ * - 다만 flush 는 영속성 컨텍스트 전체 대상이라, 바깥에서 변경해 둔 엔티티도 이 시점에 함께 flush 된다.
+ * 주의: 저장이 끝나면 넘겨준 Member 객체들은 준영속 상태가 된다. (변경해도 DB에 반영 X)
+ */
+public interface MemberBatchRepository {
+
+    /**
+     * @return 저장한 건수
+     */
+    int saveAllBatched(Iterable<Member> members);
+}
@@ -0,0 +1,52 @@
+package study.datajpa.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+
+public class MemberBatchRepositoryImpl implements MemberBatchRepository {
+
+    private final EntityManager em;
+    private final int batchSize;
+
+    public MemberBatchRepositoryImpl(EntityManager em,
+                                     @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:100}") int batchSize) {
+        this.em = em;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    @Transactional
+    public int saveAllBatched(Iterable<Member> members) {
+        int count = 0;
+        List<Member> chunk = new ArrayList<>(batchSize);
+        for (Member member : members) {
+            if (member.isNew()) { // id 를 미리 할당한 새 엔티티도 SELECT 없이 persist
+                em.persist(member);
+                chunk.add(member);
+            } else {
+                chunk.add(em.merge(member)); // merge 는 영속 상태인 사본을 돌려준다
+            }
+
+            if (++count % batchSize == 0) {
+                flushAndDetach(chunk);
+            }
+        }
+        flushAndDetach(chunk);
+        return count;
+    }
+
+    /**
+     * 모아둔 INSERT/UPDATE 를 JDBC 배치로 전송하고, 이 메서드가 저장한 엔티티만 영속성 컨텍스트에서 뺀다.
+     * em.clear() 를 쓰면 바깥 트랜잭션이 들고 있던 엔티티까지 전부 준영속이 된다.
+     */
+    private void flushAndDetach(List<Member> chunk) {
+        em.flush();
+        chunk.forEach(em::detach);
+        chunk.clear();
+    }
+}
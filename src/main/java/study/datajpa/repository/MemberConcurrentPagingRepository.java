@@ -0,0 +1,27 @@
+package study.datajpa.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import study.datajpa.entity.Member;
+
+/**
+ * count 쿼리를 내용 조회와 동시에 실행하는 페이징 (ConcurrentPageExecutor, datajpa.paging.concurrent-count 로 켠다)
+ * 꺼져 있으면 기존 메서드와 같이 순차 실행.
+ */
+public interface MemberConcurrentPagingRepository {
+
+    /**
+     * findAll(pageable)
+     */
+    Page<Member> findAllConcurrentCount(Pageable pageable);
+
+    /**
+     * findByAge(age, pageable) - 내용은 팀을 left join, count 는 회원만 센다.
+     */
+    Page<Member> findByAgeConcurrentCount(int age, Pageable pageable);
+
+    /**
+     * findByNativeProjection(pageable)
+     */
+    Page<MemberProjection> findByNativeProjectionConcurrentCount(Pageable pageable);
+}
@@ -0,0 +1,78 @@
+package study.datajpa.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import study.datajpa.entity.Member;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import javax.persistence.Tuple;
+import javax.persistence.TupleElement;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+@RequiredArgsConstructor
+public class MemberConcurrentPagingRepositoryImpl implements MemberConcurrentPagingRepository {
+
+    private static final ProjectionFactory PROJECTION_FACTORY = new SpelAwareProxyProjectionFactory();
+
+    private final EntityManager em;
+    private final ConcurrentPageExecutor pageExecutor;
+
+    @Override
+    public Page<Member> findAllConcurrentCount(Pageable pageable) {
+        return pageExecutor.execute(pageable,
+                () -> page(em.createQuery(QueryUtils.applySorting("select m from Member m", pageable.getSort(), "m"), Member.class), pageable)
+                        .getResultList(),
+                () -> em.createQuery("select count(m) from Member m", Long.class).getSingleResult());
+    }
+
+    @Override
+    public Page<Member> findByAgeConcurrentCount(int age, Pageable pageable) {
+        String jpql = QueryUtils.applySorting("select m from Member m left join m.team t where m.age = :age", pageable.getSort(), "m");
+        return pageExecutor.execute(pageable,
+                () -> page(em.createQuery(jpql, Member.class).setParameter("age", age), pageable)
+                        .getResultList(),
+                () -> em.createQuery("select count(m.username) from Member m where m.age = :age", Long.class)
+                        .setParameter("age", age)
+                        .getSingleResult());
+    }
+
+    @Override
+    public Page<MemberProjection> findByNativeProjectionConcurrentCount(Pageable pageable) {
+        String sql = QueryUtils.applySorting("select m.member_id as id, m.username, t.name as teamName" +
+                " from member m left join team t on m.team_id = t.team_id", pageable.getSort(), "m");
+        return pageExecutor.execute(pageable,
+                () -> {
+                    @SuppressWarnings("unchecked")
+                    List<Tuple> rows = page(em.createNativeQuery(sql, Tuple.class), pageable).getResultList();
+                    return rows.stream()
+                            .map(row -> PROJECTION_FACTORY.createProjection(MemberProjection.class, toMap(row)))
+                            .collect(Collectors.toList());
+                },
+                () -> ((Number) em.createNativeQuery("select count(*) from member").getSingleResult()).longValue());
+    }
+
+    private static <Q extends Query> Q page(Q query, Pageable pageable) {
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        return query;
+    }
+
+    // 네이티브 쿼리의 컬럼 별칭은 DB 에 따라 대문자로 바뀌므로(H2: TEAMNAME) 대소문자 구분 없이 찾는다.
+    private static Map<String, Object> toMap(Tuple row) {
+        Map<String, Object> map = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (TupleElement<?> element : row.getElements()) {
+            map.put(element.getAlias(), row.get(element));
+        }
+        return map;
+    }
+}
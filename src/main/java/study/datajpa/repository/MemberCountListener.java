@@ -0,0 +1,45 @@
+package study.datajpa.repository;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.datajpa.entity.Member;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+
+/**
+ * Member 저장/삭제 시 캐시된 count 를 무효화한다. (수정은 개수를 바꾸지 않으므로 제외)
+ * 엔티티 리스너지만 스프링 부트가 하이버네이트에 SpringBeanContainer 를 등록해주므로 생성자 주입이 된다.
+ *
+ * 트랜잭션 안이면 끝날 때(커밋/롤백) 한 번 더 무효화한다.
+ * 그 사이 다른 스레드가 커밋 전 count 를, 또는 이 트랜잭션이 커밋되지 않은 행까지 센 count 를 캐시했을 수 있기 때문.
+ * 대량 저장(saveAllBatched)에서 행마다 등록되지 않도록 트랜잭션마다 한 번만 등록한다.
+ */
+public class MemberCountListener {
+
+    private static final Object SYNCHRONIZED = new Object(); // 이 트랜잭션에 이미 등록했는지 표시하는 리소스 키
+
+    private final CountCache countCache;
+
+    public MemberCountListener(CountCache countCache) {
+        this.countCache = countCache;
+    }
+
+    @PostPersist
+    @PostRemove
+    public void invalidate(Member member) {
+        countCache.invalidateAll(); // 같은 트랜잭션의 다음 페이지 조회가 방금 바뀐 개수를 보도록
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(SYNCHRONIZED)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(SYNCHRONIZED, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(SYNCHRONIZED);
+                countCache.invalidateAll();
+            }
+        });
+    }
+}
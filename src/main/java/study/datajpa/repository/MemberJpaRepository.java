@@ -64,6 +64,28 @@ public class MemberJpaRepository {
                 .getResultList();
     }
 
+    /**
+     * 키셋 페이징 - findByPage 와 같은 정렬(username desc)에 member_id 를 보조 키로 추가해 순서를 고정한다.
+     * 첫 페이지는 lastUsername, lastId 를 null 로 넘긴다. offset 이 없으므로 몇 페이지든 비용이 같다.
+     */
+    public List<Member> findByPageAfter(int age, String lastUsername, Long lastId, int limit) {
+        if (lastUsername == null || lastId == null) {
+            return em.createQuery("select m from Member m where m.age = :age" +
+                            " order by m.username desc, m.id desc", Member.class)
+                    .setParameter("age", age)
+                    .setMaxResults(limit)
+                    .getResultList();
+        }
+        return em.createQuery("select m from Member m where m.age = :age" +
+                        " and (m.username < :username or (m.username = :username and m.id < :id))" +
+                        " order by m.username desc, m.id desc", Member.class)
+                .setParameter("age", age)
+                .setParameter("username", lastUsername)
+                .setParameter("id", lastId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
     public long totalCount(int age) {
         return em.createQuery("select count(m) from Member m where m.age = :age", Long.class)
                 .setParameter("age", age)
@@ -72,7 +94,7 @@ public class MemberJpaRepository {
 
     public int bulkAgePlus(int age) {   // 순수 JPA 벌크연산 쿼리 /
         return em.createQuery(
-                        "update Member m set m.age = m.age + 1" +
+                        "update Member m set m.age = m.age + 1, m.version = m.version + 1" + // 벌크 연산은 @Version 을 올리지 않으므로 직접 증가
                                 " where m.age >= :age")
                 .setParameter("age", age)
                 .executeUpdate();
@@ -0,0 +1,19 @@
+package study.datajpa.repository;
+
+import study.datajpa.dto.PageCustom;
+import study.datajpa.entity.Member;
+
+/**
+ * 키셋(seek) 페이징
+ * offset 페이징은 뒤 페이지로 갈수록 DB가 건너뛸 행을 모두 읽고 버려야 해서 느려진다.
+ * 마지막으로 본 행의 (username, member_id) 다음부터 인덱스를 타고 바로 읽으므로 어느 페이지든 비용이 같다.
+ * 대신 임의의 페이지 번호로 점프하거나 전체 페이지 수를 알 수는 없다.
+ */
+public interface MemberKeysetRepository {
+
+    /**
+     * @param cursor 이전 응답의 nextCursor / previousCursor (첫 페이지는 null)
+     * @param size   페이지 크기
+     */
+    PageCustom<Member> findKeysetByUsername(String cursor, int size);
+}
@@ -0,0 +1,67 @@
+package study.datajpa.repository;
+
+import lombok.RequiredArgsConstructor;
+import study.datajpa.dto.KeysetCursor;
+import study.datajpa.dto.PageCustom;
+import study.datajpa.entity.Member;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class MemberKeysetRepositoryImpl implements MemberKeysetRepository {
+
+    private final EntityManager em;
+
+    @Override
+    public PageCustom<Member> findKeysetByUsername(String cursor, int size) {
+        KeysetCursor keyset = KeysetCursor.decode(cursor);
+
+        TypedQuery<Member> query;
+        if (keyset == null) {
+            query = em.createQuery("select m from Member m order by m.username asc, m.id asc", Member.class);
+        } else if (!keyset.isBackward()) {
+            // JPQL 은 (a, b) > (?, ?) 형태의 행 비교를 지원하지 않으므로 풀어서 쓴다.
+            query = em.createQuery("select m from Member m" +
+                            " where m.username > :username or (m.username = :username and m.id > :id)" +
+                            " order by m.username asc, m.id asc", Member.class)
+                    .setParameter("username", keyset.getUsername())
+                    .setParameter("id", keyset.getId());
+        } else {
+            // 이전 페이지는 역순으로 읽은 뒤 다시 뒤집는다.
+            query = em.createQuery("select m from Member m" +
+                            " where m.username < :username or (m.username = :username and m.id < :id)" +
+                            " order by m.username desc, m.id desc", Member.class)
+                    .setParameter("username", keyset.getUsername())
+                    .setParameter("id", keyset.getId());
+        }
+
+        // 한 건 더 읽어서 진행 방향으로 다음 데이터가 있는지 확인 (count 쿼리 X)
+        List<Member> result = query.setMaxResults(size + 1).getResultList();
+        boolean hasMore = result.size() > size;
+        List<Member> content = new ArrayList<>(hasMore ? result.subList(0, size) : result);
+
+        boolean backward = keyset != null && keyset.isBackward();
+        if (backward) {
+            Collections.reverse(content);
+        }
+
+        boolean hasNext = backward || hasMore;          // 이전 페이지로 왔다면 다음 페이지는 항상 있다.
+        boolean hasPrevious = backward ? hasMore : keyset != null;
+
+        String nextCursor = null;
+        String previousCursor = null;
+        if (!content.isEmpty()) {
+            if (hasNext) {
+                nextCursor = KeysetCursor.after(content.get(content.size() - 1)).encode();
+            }
+            if (hasPrevious) {
+                previousCursor = KeysetCursor.before(content.get(0)).encode();
+            }
+        }
+        return new PageCustom<>(content, size, nextCursor, previousCursor);
+    }
+}
@@ -0,0 +1,24 @@
+package study.datajpa.repository;
+
+import study.datajpa.entity.Member;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 여러 건 한 번에 조회 (팀 fetch join)
+ * 입력이 커도 IN 절을 chunk-size 개씩 나눠서 조회하고, 결과는 입력 순서대로 돌려준다.
+ * IN 파라미터 개수는 하이버네이트가 2의 거듭제곱으로 채운다. (in_clause_parameter_padding)
+ */
+public interface MemberMultiGetRepository {
+
+    /**
+     * @return 입력 id 순서 (중복 id 는 한 번, 없는 id 는 제외)
+     */
+    List<Member> findAllByIdInOrder(Collection<Long> ids);
+
+    /**
+     * @return 입력 username 순서 (같은 username 의 회원은 id 순)
+     */
+    List<Member> findAllByUsernameInOrder(Collection<String> usernames);
+}
@@ -0,0 +1,120 @@
+package study.datajpa.repository;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * - chunk-size (2의 거듭제곱 권장): 드라이버 파라미터 개수 제한을 넘지 않게 나눈다. 마지막 chunk 만 패딩된다.
+ * - parallel = true 이고 chunk 가 여러 개면 queryExecutor 에서 chunk 별 읽기 전용 트랜잭션으로 동시에 조회한다.
+ *   이때 결과는 준영속 엔티티. 쓰기 트랜잭션 안에서는 순차 조회 (영속 상태 유지, 아직 커밋하지 않은 변경도 보임)
+ */
+public class MemberMultiGetRepositoryImpl implements MemberMultiGetRepository {
+
+    private final EntityManager em;
+    private final ThreadPoolTaskExecutor queryExecutor;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int chunkSize;
+    private final boolean parallel;
+
+    public MemberMultiGetRepositoryImpl(EntityManager em,
+                                        @Qualifier("queryExecutor") ThreadPoolTaskExecutor queryExecutor,
+                                        PlatformTransactionManager transactionManager,
+                                        @Value("${datajpa.multi-get.chunk-size:512}") int chunkSize,
+                                        @Value("${datajpa.multi-get.parallel:false}") boolean parallel) {
+        this.em = em;
+        this.queryExecutor = queryExecutor;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.chunkSize = chunkSize;
+        this.parallel = parallel;
+    }
+
+    @Override
+    public List<Member> findAllByIdInOrder(Collection<Long> ids) {
+        List<Long> keys = new ArrayList<>(new LinkedHashSet<>(ids));
+        Map<Long, Member> byId = fetch(keys, chunk -> em.createQuery(
+                        "select m from Member m left join fetch m.team where m.id in :ids", Member.class)
+                .setParameter("ids", chunk)
+                .getResultList())
+                .stream()
+                .collect(Collectors.toMap(Member::getId, Function.identity()));
+
+        List<Member> result = new ArrayList<>(keys.size());
+        for (Long id : keys) {
+            Member member = byId.get(id);
+            if (member != null) {
+                result.add(member);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<Member> findAllByUsernameInOrder(Collection<String> usernames) {
+        List<String> keys = new ArrayList<>(new LinkedHashSet<>(usernames));
+        Map<String, List<Member>> byUsername = fetch(keys, chunk -> em.createQuery(
+                        "select m from Member m left join fetch m.team where m.username in :names", Member.class)
+                .setParameter("names", chunk)
+                .getResultList())
+                .stream()
+                .sorted(Comparator.comparing(Member::getId))
+                .collect(Collectors.groupingBy(Member::getUsername));
+
+        List<Member> result = new ArrayList<>();
+        for (String username : keys) {
+            result.addAll(byUsername.getOrDefault(username, List.of()));
+        }
+        return result;
+    }
+
+    private <K> List<Member> fetch(List<K> keys, Function<List<K>, List<Member>> query) {
+        List<List<K>> chunks = new ArrayList<>();
+        for (int from = 0; from < keys.size(); from += chunkSize) {
+            chunks.add(keys.subList(from, Math.min(from + chunkSize, keys.size())));
+        }
+
+        List<Member> result = new ArrayList<>();
+        if (!isParallel(chunks.size())) {
+            chunks.forEach(chunk -> result.addAll(query.apply(chunk)));
+            return result;
+        }
+
+        List<CompletableFuture<List<Member>>> futures = chunks.stream()
+                .map(chunk -> CompletableFuture.supplyAsync(
+                        () -> readOnlyTransaction.execute(status -> query.apply(chunk)), queryExecutor))
+                .collect(Collectors.toList());
+        for (CompletableFuture<List<Member>> future : futures) {
+            try {
+                result.addAll(future.join());
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+            }
+        }
+        return result;
+    }
+
+    private boolean isParallel(int chunks) {
+        if (!parallel || chunks < 2) {
+            return false;
+        }
+        return !TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+}
@@ -0,0 +1,22 @@
+package study.datajpa.repository;
+
+import org.springframework.data.domain.Pageable;
+import study.datajpa.dto.CountedPage;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.entity.Member;
+
+/**
+ * count 쿼리 비용을 줄인 페이징
+ * findAll(pageable) 과 같은 결과지만 전체 개수는 CountCache 를 거친다.
+ */
+public interface MemberPagingRepository {
+
+    CountedPage<Member> findAllCachedCount(Pageable pageable);
+
+    /**
+     * 목록 화면용 DTO 조회
+     * 엔티티 대신 id, username, team.name 만 한 번의 쿼리로 DTO 에 담는다. (팀 이름 때문에 N+1 이 생기지 않음)
+     * 읽기 전용 트랜잭션이라 flush, 변경감지용 스냅샷도 만들지 않는다.
+     */
+    CountedPage<MemberDto> findMemberDtoCachedCount(Pageable pageable);
+}
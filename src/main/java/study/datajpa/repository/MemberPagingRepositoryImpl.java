@@ -0,0 +1,59 @@
+package study.datajpa.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.dto.CountedPage;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.entity.Member;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class MemberPagingRepositoryImpl implements MemberPagingRepository {
+
+    private static final String COUNT_ALL = "select count(m) from Member m";
+    private static final Object[] NO_PARAMS = {};
+
+    private final EntityManager em;
+    private final CountCache countCache;
+
+    @Override
+    public CountedPage<Member> findAllCachedCount(Pageable pageable) {
+        return findPage("select m from Member m", Member.class, pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CountedPage<MemberDto> findMemberDtoCachedCount(Pageable pageable) {
+        return findPage("select new study.datajpa.dto.MemberDto(m.id, m.username, t.name)" +
+                " from Member m left join m.team t", MemberDto.class, pageable);
+    }
+
+    // 내용은 pageable 로 조회하고, 전체 개수(회원 수)는 count 캐시에서 가져온다.
+    private <T> CountedPage<T> findPage(String selectJpql, Class<T> resultType, Pageable pageable) {
+        String jpql = QueryUtils.applySorting(selectJpql, pageable.getSort(), "m");
+        TypedQuery<T> query = em.createQuery(jpql, resultType);
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset())
+                    .setMaxResults(pageable.getPageSize());
+        }
+        List<T> content = query.getResultList();
+
+        CountCache.Count count = countCache.count(COUNT_ALL, NO_PARAMS,
+                () -> em.createQuery(COUNT_ALL, Long.class).getSingleResult(),
+                this::estimateMemberRows);
+        return new CountedPage<>(content, pageable, count.getTotal(), count.isExact());
+    }
+
+    // H2 통계 정보의 행 수 추정치 (count(*) 처럼 테이블을 읽지 않는다)
+    private long estimateMemberRows() {
+        Number estimate = (Number) em.createNativeQuery(
+                        "select row_count_estimate from information_schema.tables where table_name = 'MEMBER'")
+                .getSingleResult();
+        return estimate.longValue();
+    }
+}
@@ -5,6 +5,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import study.datajpa.dto.MemberDto;
 import study.datajpa.entity.Member;
 
@@ -14,7 +15,7 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface MemberRepository extends JpaRepository<Member, Long>, MemberRepositoryCustom, MemberRepositoryCustom_2, JpaSpecificationExecutor<Member> {
+public interface MemberRepository extends JpaRepository<Member, Long>, MemberRepositoryCustom, MemberRepositoryCustom_2, MemberKeysetRepository, MemberPagingRepository, MemberBatchRepository, MemberStreamRepository, MemberConcurrentPagingRepository, MemberSpecRepository, MemberMultiGetRepository, JpaSpecificationExecutor<Member> {
 
     /**
      *     이 기능은 엔티티의 필드명이 변경되면 인터페이스에 정의한 메서드 이름도 꼭 함께 변경해야 한다.
@@ -86,7 +87,9 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
     List<Member> findByNames(@Param("names") Collection<String> names);
 
     List<Member> findListByUsername(String username);  //컬렉션
+    @UsernameLookup // 없는 username 은 블룸 필터에서 걸러서 DB 조회 생략
     Member findMemberByUsername(String username);  //단건
+    @UsernameLookup
     Optional<Member> findOptionalByUsername(String username);  //단건 Optional
 
     @Query(value = "select m from Member m left join m.team t",
@@ -101,7 +104,7 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
      * @Modifying(clearAutomatically = true) -> 영속성 컨텍스트를 초기화 해주는 어노미테이션 옵션
      */
     @Modifying 
-    @Query("update Member m set m.age = m.age + 1 where m.age >= :age")
+    @Query("update Member m set m.age = m.age + 1, m.version = m.version + 1 where m.age >= :age") // version 도 올려야 동시에 수정 중인 엔티티가 낙관적 락으로 실패한다.
     int bulkAgePlus(@Param("age") int age);
 
     @Query("select m from Member m left join fetch m.team")
@@ -122,10 +125,13 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
 //    @EntityGraph("Member.all") // 네임드 쿼리에 엔티티그래프 적용하기
     List<Member> findEntityGraphByUsername(@Param("username") String username);
 
-    @QueryHints(value = @QueryHint(name = "org.hibernate.readOnly", value = "true")) //변경감지 체크를 안 함
+//    @QueryHints(value = @QueryHint(name = "org.hibernate.readOnly", value = "true")) //변경감지 체크를 안 함
+    @ReadOnlyQuery // 읽기 전용 힌트 + 자동 flush 안 함 + fetch size, 라우팅을 켜면 복제본에서 조회
     Member findReadOnlyByUsername(String username);
 
+    @Transactional // 락은 원본에서 (기본 조회 메서드는 readOnly 라 복제본으로 갈 수 있다)
     @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = "3000")) // 락 대기 최대 3초 (무한 대기 -> 커넥션 풀 고갈 방지)
     List<Member> findLockByUsername(String username);
 
 //    List<UsernameOnly> findProjectionsByUsername(@Param("username") String username);
@@ -135,6 +141,7 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
     /**
      * 동적 Projections
      */
+    @ReadOnlyQuery
     <T> List<T> findProjectionsByUsername(@Param("username") String username, Class<T> type);
 
     @Query(value = "select * from member where username = ?", nativeQuery = true)
@@ -144,6 +151,7 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
             " from member m left join team t",
             countQuery = "select count(*) from member",
             nativeQuery = true)
+    @ReadOnlyQuery
     Page<MemberProjection> findByNativeProjection(Pageable pageable);
 
 }
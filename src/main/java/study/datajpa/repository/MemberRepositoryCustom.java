@@ -5,5 +5,6 @@ import study.datajpa.entity.Member;
 import java.util.List;
 
 public interface MemberRepositoryCustom {
+    @ReadOnlyQuery // 사용자 정의 구현(MemberRepositoryImpl)의 쿼리에도 적용
     List<Member> findMemberCustom();
 }
@@ -1,33 +1,51 @@
 package study.datajpa.repository;
 
 import lombok.Builder;
-import org.springframework.data.jpa.domain.Specification;
 import org.springframework.util.StringUtils;
 import study.datajpa.entity.Member;
 import study.datajpa.entity.Team;
 
 import javax.persistence.criteria.*;
+import java.util.Collections;
 
 /**
  * 실무에서 JPA Criteria를 쓰기에는 너무 번잡하다. 쿼리문이 복잡해진다면?
  * 실무에서는 JPA Criteria를 거의 안쓴다! 대신에 'QueryDSL'을 사용하자.
+ *
+ * 검색 화면에서는 같은 조건 조합이 계속 반복되므로 ShapedSpecification 으로 만든다.
+ * -> memberRepository.findAll(spec) 은 조합(모양)별로 한 번 만든 쿼리를 재사용한다. (MemberSpecRepositoryImpl)
  */
 public class MemberSpec {
 
-    public static Specification<Member> teamName(final String teamName) {
-        return (root, query, criteriaBuilder) -> {
+    public static ShapedSpecification<Member> teamName(final String teamName) {
+        if (StringUtils.isEmpty(teamName)) {
+            return ShapedSpecification.none();
+        }
+        return ShapedSpecification.where(MemberShape.TEAM_NAME, Collections.<Object>singletonList(teamName));
+    }
 
-            if (StringUtils.isEmpty(teamName)) {
-                return null;
-            }
+    public static ShapedSpecification<Member> username(final String username) {
+        return ShapedSpecification.where(MemberShape.USERNAME, Collections.<Object>singletonList(username));
+    }
 
+    // 조건 모양별 Criteria (값은 binder 로)
+    private enum MemberShape implements ShapedSpecification.Shape<Member> {
+        TEAM_NAME((root, query, criteriaBuilder, binder) -> {
             Join<Member, Team> t = root.join("team", JoinType.INNER);//회원과 조인
-            return criteriaBuilder.equal(t.get("name"), teamName);
-        };
-    }
+            return criteriaBuilder.equal(t.get("name"), binder.bind(String.class));
+        }),
+        USERNAME((root, query, criteriaBuilder, binder) ->
+                criteriaBuilder.equal(root.get("username"), binder.bind(String.class)));
+
+        private final ShapedSpecification.Template<Member> template;
+
+        MemberShape(ShapedSpecification.Template<Member> template) {
+            this.template = template;
+        }
 
-    public static Specification<Member> username(final String username) {
-        return (root, query, criteriaBuilder) ->
-            criteriaBuilder.equal(root.get("username"), username);
+        @Override
+        public ShapedSpecification.Template<Member> template() {
+            return template;
+        }
     }
 }
@@ -0,0 +1,15 @@
+package study.datajpa.repository;
+
+import org.springframework.data.jpa.domain.Specification;
+import study.datajpa.entity.Member;
+
+import java.util.List;
+
+/**
+ * JpaSpecificationExecutor.findAll(spec) 대체
+ * ShapedSpecification 이면 조건 모양별로 컴파일해둔 쿼리를 재사용한다. 그 외 Specification 은 기존과 같이 실행.
+ */
+public interface MemberSpecRepository {
+
+    List<Member> findAll(Specification<Member> spec);
+}
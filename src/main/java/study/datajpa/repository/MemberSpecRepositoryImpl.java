@@ -0,0 +1,96 @@
+package study.datajpa.repository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Specification 컴파일 캐시
+ * 매번 Criteria 트리(root.join("team") 포함)를 만들고 JPQL 로 렌더링하는 대신
+ * 조건 모양별로 한 번 렌더링한 JPQL 을 보관하고 값만 바인딩한다. 같은 JPQL 은 하이버네이트 쿼리 플랜 캐시에서 파싱 결과를 재사용한다.
+ *
+ * 적중/미스: member.spec.cache{result=hit|miss} (/actuator/metrics)
+ */
+public class MemberSpecRepositoryImpl implements MemberSpecRepository {
+
+    static final String CACHE_METRIC = "member.spec.cache";
+    private static final int MAX_SHAPES = 256; // 조건을 동적으로 무한히 조합해도 메모리가 늘지 않도록
+
+    private final Map<String, String> compiled = new ConcurrentHashMap<>();
+
+    private final EntityManager em;
+    private final Counter hits;
+    private final Counter misses;
+
+    public MemberSpecRepositoryImpl(EntityManager em, MeterRegistry meterRegistry) {
+        this.em = em;
+        this.hits = meterRegistry.counter(CACHE_METRIC, "result", "hit");
+        this.misses = meterRegistry.counter(CACHE_METRIC, "result", "miss");
+    }
+
+    @Override
+    @Transactional(readOnly = true) // SimpleJpaRepository.findAll 과 같게 (라우팅을 켜면 복제본에서 조회)
+    public List<Member> findAll(Specification<Member> spec) {
+        if (!(spec instanceof ShapedSpecification)) {
+            return em.createQuery(criteria(spec)).getResultList();
+        }
+
+        ShapedSpecification<Member> shaped = (ShapedSpecification<Member>) spec;
+        String jpql = compiled.get(shaped.getShape());
+        if (jpql != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+            jpql = compile(shaped);
+            if (compiled.size() < MAX_SHAPES) {
+                compiled.putIfAbsent(shaped.getShape(), jpql);
+            }
+        }
+
+        TypedQuery<Member> query = em.createQuery(jpql, Member.class);
+        List<Object> values = shaped.getValues();
+        for (int i = 0; i < values.size(); i++) {
+            query.setParameter(ShapedSpecification.parameterName(i), values.get(i));
+        }
+        return query.getResultList();
+    }
+
+    // 파라미터로 만든 Criteria 를 JPQL 로 렌더링
+    private String compile(ShapedSpecification<Member> shaped) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Member> criteria = cb.createQuery(Member.class);
+        Root<Member> root = criteria.from(Member.class);
+        Predicate predicate = shaped.toParameterizedPredicate(root, criteria, cb);
+        criteria.select(root);
+        if (predicate != null) {
+            criteria.where(predicate);
+        }
+        return em.createQuery(criteria)
+                .unwrap(org.hibernate.query.Query.class)
+                .getQueryString();
+    }
+
+    private CriteriaQuery<Member> criteria(Specification<Member> spec) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Member> criteria = cb.createQuery(Member.class);
+        Root<Member> root = criteria.from(Member.class);
+        criteria.select(root);
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, criteria, cb);
+        if (predicate != null) {
+            criteria.where(predicate);
+        }
+        return criteria;
+    }
+}
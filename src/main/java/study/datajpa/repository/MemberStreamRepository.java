@@ -0,0 +1,17 @@
+package study.datajpa.repository;
+
+import study.datajpa.dto.MemberDto;
+
+import java.util.stream.Stream;
+
+/**
+ * 전체 회원 스트리밍 조회 (내보내기용)
+ * findAll() 처럼 전체를 List 로 힙에 올리지 않고 forward-only 커서로 한 행씩 읽는다.
+ * 엔티티 대신 DTO 로 바로 조회하므로 영속성 컨텍스트에도 쌓이지 않는다. (행마다 detach 할 필요 X)
+ *
+ * 주의: 스트림을 다 읽을 때까지 커넥션을 점유하므로 트랜잭션 안에서 사용하고, 반드시 close 해야 한다.
+ */
+public interface MemberStreamRepository {
+
+    Stream<MemberDto> streamMemberDto();
+}
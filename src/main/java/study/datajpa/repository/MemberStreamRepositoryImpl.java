@@ -0,0 +1,28 @@
+package study.datajpa.repository;
+
+import org.hibernate.jpa.QueryHints;
+import org.springframework.beans.factory.annotation.Value;
+import study.datajpa.dto.MemberDto;
+
+import javax.persistence.EntityManager;
+import java.util.stream.Stream;
+
+public class MemberStreamRepositoryImpl implements MemberStreamRepository {
+
+    private final EntityManager em;
+    private final int fetchSize;
+
+    public MemberStreamRepositoryImpl(EntityManager em,
+                                      @Value("${datajpa.export.fetch-size:1000}") int fetchSize) {
+        this.em = em;
+        this.fetchSize = fetchSize;
+    }
+
+    @Override
+    public Stream<MemberDto> streamMemberDto() {
+        return em.createQuery("select new study.datajpa.dto.MemberDto(m.id, m.username, t.name)" +
+                        " from Member m left join m.team t", MemberDto.class)
+                .setHint(QueryHints.HINT_FETCH_SIZE, fetchSize) // JDBC 드라이버가 한 번에 가져올 행 수
+                .getResultStream();
+    }
+}
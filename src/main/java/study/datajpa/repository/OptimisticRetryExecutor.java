@@ -0,0 +1,98 @@
+package study.datajpa.repository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+import javax.persistence.OptimisticLockException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * 낙관적 락 재시도 실행기 (findLockByUsername 의 대안)
+ * 비관적 락(SELECT ... FOR UPDATE)은 같은 회원을 수정하는 요청을 모두 한 줄로 세운다. 락을 기다리는 동안 커넥션도 잡고 있다.
+ * 낙관적 락(@Version)은 락 없이 읽고 커밋할 때 version 을 비교한다. 충돌하면 트랜잭션 전체(조회 -> 수정)를 다시 실행한다.
+ *
+ * <pre>
+ * optimisticRetryExecutor.execute(() -> {
+ *     Member member = memberRepository.findById(id).get();
+ *     member.setAge(member.getAge() + 1);
+ *     return member;
+ * });
+ * </pre>
+ *
+ * - 재시도마다 새 트랜잭션 (새 영속성 컨텍스트에서 최신 값을 다시 읽는다)
+ * - 대기: 지수 백오프 + 지터 (backoff * 2^(n-1), 최대 max-backoff). 동시에 충돌한 요청들이 같은 시점에 다시 충돌하지 않게
+ * - max-attempts 를 넘으면 마지막 예외를 그대로 던진다.
+ * - 충돌이 잦은(같은 행을 계속 수정하는) 경우에는 재시도 비용이 락 대기보다 클 수 있다. (LockContentionBenchmark)
+ */
+@Slf4j
+@Component
+public class OptimisticRetryExecutor {
+
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final long backoffNanos;
+    private final long maxBackoffNanos;
+    private final Counter retries;
+    private final Counter exhausted;
+
+    public OptimisticRetryExecutor(PlatformTransactionManager transactionManager,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${datajpa.optimistic-retry.max-attempts:5}") int maxAttempts,
+                                   @Value("${datajpa.optimistic-retry.backoff:10ms}") Duration backoff,
+                                   @Value("${datajpa.optimistic-retry.max-backoff:200ms}") Duration maxBackoff) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxAttempts = maxAttempts;
+        this.backoffNanos = backoff.toNanos();
+        this.maxBackoffNanos = maxBackoff.toNanos();
+        this.retries = meterRegistry.counter("optimistic.retry", "outcome", "retry");
+        this.exhausted = meterRegistry.counter("optimistic.retry", "outcome", "exhausted");
+    }
+
+    public <T> T execute(Supplier<T> unitOfWork) {
+        // 바깥 트랜잭션에 참여하면 재시도해도 같은(이미 실패한) 영속성 컨텍스트를 쓰게 된다.
+        Assert.state(!TransactionSynchronizationManager.isActualTransactionActive(),
+                "낙관적 락 재시도는 트랜잭션 밖에서 실행해야 합니다.");
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> unitOfWork.get());
+            } catch (OptimisticLockingFailureException | OptimisticLockException e) {
+                if (attempt >= maxAttempts) {
+                    exhausted.increment();
+                    throw e;
+                }
+                retries.increment();
+                log.debug("낙관적 락 충돌, 재시도 {}/{}", attempt, maxAttempts);
+                sleep(attempt);
+            }
+        }
+    }
+
+    public void run(Runnable unitOfWork) {
+        execute(() -> {
+            unitOfWork.run();
+            return null;
+        });
+    }
+
+    private void sleep(int attempt) {
+        long ceiling = Math.min(maxBackoffNanos, backoffNanos << Math.min(attempt - 1, 20));
+        long nanos = ThreadLocalRandom.current().nextLong(ceiling / 2, ceiling + 1); // 지터
+        try {
+            Thread.sleep(nanos / 1_000_000, (int) (nanos % 1_000_000));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("낙관적 락 재시도 대기 중 인터럽트", e);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package study.datajpa.repository;
+
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 조회 전용 리포지토리 메서드 (쿼리 메서드, 사용자 정의 리포지토리 인터페이스의 메서드)
+ * 메서드가 실행되는 동안 (ReadOnlyQueryPostProcessor)
+ * - 읽기 전용 로딩: 조회한 엔티티의 스냅샷을 만들지 않고 변경 감지도 하지 않는다. (org.hibernate.readOnly)
+ * - FlushMode.MANUAL: 쿼리 전에 영속성 컨텍스트를 자동 flush 하지 않는다.
+ * - JDBC fetch size, 쿼리 타임아웃
+ * - @Transactional(readOnly = true): 라우팅을 켜면 복제본에서 조회 (RoutingDataSourceConfig)
+ *
+ * 주의: 쓰기 트랜잭션 안에서 호출하면 아직 flush 하지 않은 변경은 조회 결과에 보이지 않고,
+ * 이 메서드로 처음 조회한 엔티티는 수정해도 반영되지 않는다. 수정할 엔티티를 찾는 메서드에는 붙이지 않는다.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Transactional(readOnly = true)
+public @interface ReadOnlyQuery {
+
+    /**
+     * JDBC fetch size (0 이하면 드라이버 기본값)
+     */
+    int fetchSize() default 100;
+
+    /**
+     * 쿼리 타임아웃 ms (0 이하면 없음)
+     */
+    int timeoutMillis() default -1;
+}
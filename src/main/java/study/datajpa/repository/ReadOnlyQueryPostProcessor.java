@@ -0,0 +1,136 @@
+package study.datajpa.repository;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Query;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @ReadOnlyQuery 적용
+ * - 리포지토리 프록시: 스프링 데이터 트랜잭션 인터셉터 안쪽에 인터셉터를 추가해서 세션을 읽기 전용 + FlushMode.MANUAL 로 바꾸고 끝나면 되돌린다.
+ *   (addRepositoryFactoryCustomizer 는 트랜잭션 후처리기가 등록된 뒤에 실행된다.)
+ *   @ReadOnlyQuery 메서드가 있는 리포지토리에만 추가한다.
+ * - 공유 EntityManager 빈: 리포지토리와 사용자 정의 구현 클래스(MemberRepositoryImpl 등)가 주입받는 EntityManager 를 감싸서
+ *   @ReadOnlyQuery 메서드 안에서 만든 쿼리에 fetch size, 타임아웃 힌트를 넣는다.
+ *
+ * 중첩 호출은 가장 바깥 @ReadOnlyQuery 설정을 따른다.
+ */
+@Component
+public class ReadOnlyQueryPostProcessor implements BeanPostProcessor {
+
+    private static final ThreadLocal<ReadOnlyQuery> current = new ThreadLocal<>();
+
+    private final ObjectProvider<EntityManagerFactory> entityManagerFactory;
+    private final Map<Method, Optional<ReadOnlyQuery>> annotations = new ConcurrentHashMap<>();
+
+    public ReadOnlyQueryPostProcessor(ObjectProvider<EntityManagerFactory> entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport) {
+            MethodInterceptor interceptor = this::invoke;
+            ((RepositoryFactoryBeanSupport<?, ?, ?>) bean).addRepositoryFactoryCustomizer(factory ->
+                    factory.addRepositoryProxyPostProcessor((proxyFactory, repositoryInformation) -> {
+                        if (hasReadOnlyQuery(repositoryInformation.getRepositoryInterface())) {
+                            proxyFactory.addAdvice(interceptor);
+                        }
+                    }));
+        }
+        return bean;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof EntityManager && Proxy.isProxyClass(bean.getClass())) {
+            return applyingHints((EntityManager) bean);
+        }
+        return bean;
+    }
+
+    // 상속한 인터페이스(사용자 정의 리포지토리 포함)의 메서드까지 본다.
+    private static boolean hasReadOnlyQuery(Class<?> repositoryInterface) {
+        for (Method method : repositoryInterface.getMethods()) {
+            if (AnnotatedElementUtils.hasAnnotation(method, ReadOnlyQuery.class)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Object invoke(MethodInvocation invocation) throws Throwable {
+        ReadOnlyQuery readOnlyQuery = annotations.computeIfAbsent(invocation.getMethod(),
+                method -> Optional.ofNullable(AnnotatedElementUtils.findMergedAnnotation(method, ReadOnlyQuery.class))).orElse(null);
+        if (readOnlyQuery == null || current.get() != null) {
+            return invocation.proceed();
+        }
+        EntityManager em = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory.getObject());
+        Session session = em != null ? em.unwrap(Session.class) : null;
+        boolean defaultReadOnly = session != null && session.isDefaultReadOnly();
+        FlushMode flushMode = session != null ? session.getHibernateFlushMode() : null;
+
+        current.set(readOnlyQuery);
+        try {
+            if (session != null) {
+                session.setDefaultReadOnly(true);
+                session.setHibernateFlushMode(FlushMode.MANUAL);
+            }
+            return invocation.proceed();
+        } finally {
+            current.remove();
+            if (session != null && session.isOpen()) {
+                session.setDefaultReadOnly(defaultReadOnly);
+                session.setHibernateFlushMode(flushMode);
+            }
+        }
+    }
+
+    private static EntityManager applyingHints(EntityManager target) {
+        return (EntityManager) Proxy.newProxyInstance(target.getClass().getClassLoader(),
+                ClassUtils.getAllInterfaces(target),
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                    }
+                    Object result;
+                    try {
+                        result = method.invoke(target, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                    ReadOnlyQuery readOnlyQuery = current.get();
+                    if (readOnlyQuery != null && result instanceof Query) {
+                        Query query = (Query) result;
+                        if (readOnlyQuery.fetchSize() > 0) {
+                            query.setHint(QueryHints.HINT_FETCH_SIZE, readOnlyQuery.fetchSize());
+                        }
+                        if (readOnlyQuery.timeoutMillis() > 0) {
+                            query.setHint(QueryHints.SPEC_HINT_TIMEOUT, readOnlyQuery.timeoutMillis());
+                        }
+                    }
+                    return result;
+                });
+    }
+}
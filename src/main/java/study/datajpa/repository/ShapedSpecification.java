@@ -0,0 +1,133 @@
+package study.datajpa.repository;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 모양(shape)을 아는 Specification
+ * 일반 Specification 은 람다라서 어떤 조건이 어떻게 조합됐는지 알 수 없다. -> 매번 Criteria 를 새로 만들고 JPQL 로 렌더링해야 한다.
+ * 조건의 모양("(username and teamName)")과 값을 분리해두면 같은 모양은 한 번 만든 쿼리를 재사용하고 값만 바인딩할 수 있다. (MemberSpecRepositoryImpl)
+ *
+ * 모양은 조건을 만드는 Template 과 1:1 이어야 한다. 이름만 같은 다른 조건이 캐시된 쿼리를 쓰면 엉뚱한 조건으로 조회된다.
+ * 그래서 조건 하나의 모양은 enum 상수(Shape)로만 만들고, 모양 문자열은 enum 클래스 이름 + 상수 이름으로 만든다.
+ *
+ * 값은 Binder 로 꺼낸다. 그냥 실행하면 리터럴, 컴파일할 때는 파라미터(p0, p1, ...)가 된다.
+ * 바인딩 순서 = 조건이 조합된 순서이므로 모양이 같으면 파라미터 순서도 같다.
+ */
+public class ShapedSpecification<T> implements Specification<T> {
+
+    private static final ShapedSpecification<?> NONE = new ShapedSpecification<>("", Collections.emptyList(),
+            (root, query, cb, binder) -> null);
+
+    private final String shape;
+    private final List<Object> values;
+    private final Template<T> template;
+
+    private ShapedSpecification(String shape, List<Object> values, Template<T> template) {
+        this.shape = shape;
+        this.values = values;
+        this.template = template;
+    }
+
+    public static <T, S extends Enum<S> & Shape<T>> ShapedSpecification<T> where(S shape, List<Object> values) {
+        return new ShapedSpecification<>(shape.getDeclaringClass().getName() + "." + shape.name(), values, shape.template());
+    }
+
+    /**
+     * 조건 없음 (다른 조건과 조합하면 무시된다)
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> ShapedSpecification<T> none() {
+        return (ShapedSpecification<T>) NONE;
+    }
+
+    public ShapedSpecification<T> and(ShapedSpecification<T> other) {
+        return combine(other, "and");
+    }
+
+    public ShapedSpecification<T> or(ShapedSpecification<T> other) {
+        return combine(other, "or");
+    }
+
+    private ShapedSpecification<T> combine(ShapedSpecification<T> other, String operator) {
+        if (other == null || other.shape.isEmpty()) {
+            return this;
+        }
+        if (shape.isEmpty()) {
+            return other;
+        }
+        List<Object> combined = new ArrayList<>(values);
+        combined.addAll(other.values);
+        return new ShapedSpecification<>("(" + shape + " " + operator + " " + other.shape + ")", combined,
+                (root, query, cb, binder) -> {
+                    Predicate left = template.toPredicate(root, query, cb, binder);
+                    Predicate right = other.template.toPredicate(root, query, cb, binder);
+                    return "and".equals(operator) ? cb.and(left, right) : cb.or(left, right);
+                });
+    }
+
+    public String getShape() {
+        return shape;
+    }
+
+    public List<Object> getValues() {
+        return Collections.unmodifiableList(values);
+    }
+
+    /**
+     * 값을 리터럴로 넣은 조건 (일반 Specification 과 같다)
+     */
+    @Override
+    public Predicate toPredicate(Root<T> root, CriteriaQuery<?> query, CriteriaBuilder cb) {
+        List<Object> remaining = new ArrayList<>(values);
+        return template.toPredicate(root, query, cb, new Binder() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <V> Expression<V> bind(Class<V> type) {
+                V value = (V) remaining.remove(0);
+                return value == null ? cb.nullLiteral(type) : cb.literal(value);
+            }
+        });
+    }
+
+    /**
+     * 값 대신 파라미터 p0, p1, ... 을 넣은 조건 (쿼리 컴파일용)
+     */
+    public Predicate toParameterizedPredicate(Root<T> root, CriteriaQuery<?> query, CriteriaBuilder cb) {
+        int[] index = {0};
+        return template.toPredicate(root, query, cb, new Binder() {
+            @Override
+            public <V> Expression<V> bind(Class<V> type) {
+                return cb.parameter(type, parameterName(index[0]++));
+            }
+        });
+    }
+
+    public static String parameterName(int index) {
+        return "p" + index;
+    }
+
+    /**
+     * 조건 하나의 모양 (enum 으로 구현한다)
+     */
+    public interface Shape<T> {
+        Template<T> template();
+    }
+
+    @FunctionalInterface
+    public interface Template<T> {
+        Predicate toPredicate(Root<T> root, CriteriaQuery<?> query, CriteriaBuilder cb, Binder binder);
+    }
+
+    public interface Binder {
+        <V> Expression<V> bind(Class<V> type);
+    }
+}
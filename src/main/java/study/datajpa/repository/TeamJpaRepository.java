@@ -1,10 +1,14 @@
 package study.datajpa.repository;
 
+import org.hibernate.jpa.QueryHints;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import study.datajpa.entity.Team;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,11 +18,36 @@ public class TeamJpaRepository {
     @PersistenceContext
     private EntityManager em;
 
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:100}")
+    private int batchSize;
+
     public Team save(Team team) {
         em.persist(team);
         return team;
     }
 
+    /**
+     * 대량 저장 - batch_size 마다 flush(JDBC 배치 전송) + 저장한 Team 만 detach
+     * 바깥 트랜잭션이 들고 있는 다른 엔티티는 건드리지 않는다. 넘겨준 Team 객체들은 준영속 상태가 된다.
+     */
+    @Transactional
+    public int saveAllBatched(Iterable<Team> teams) {
+        int count = 0;
+        List<Team> chunk = new ArrayList<>(batchSize);
+        for (Team team : teams) {
+            em.persist(team);
+            chunk.add(team);
+            if (++count % batchSize == 0) {
+                em.flush();
+                chunk.forEach(em::detach);
+                chunk.clear();
+            }
+        }
+        em.flush();
+        chunk.forEach(em::detach);
+        return count;
+    }
+
     public void delete(Team team) {
         em.remove(team);
     }
@@ -33,11 +62,27 @@ public class TeamJpaRepository {
         return Optional.ofNullable(team);
     }
 
+    /**
+     * 회원까지 함께 조회하는 페이징 (TeamRepository.findAllWithMembers 와 같은 두 단계 방식)
+     * 컬렉션 페치 조인에 setFirstResult/setMaxResults 를 걸면 메모리 페이징(HHH000104)이 되므로 id 를 먼저 페이징한다.
+     */
+    public List<Team> findPageWithMembers(int offset, int limit) {
+        List<Long> ids = em.createQuery("select t.id from Team t order by t.id", Long.class)
+                .setFirstResult(offset)
+                .setMaxResults(limit)
+                .getResultList();
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return em.createQuery("select distinct t from Team t left join fetch t.members" +
+                        " where t.id in :ids order by t.id", Team.class)
+                .setParameter("ids", ids)
+                .setHint(QueryHints.HINT_PASS_DISTINCT_THROUGH, false)
+                .getResultList();
+    }
+
     public long count() {
         return em.createQuery("select count(t) from Team t", Long.class)
                 .getSingleResult();
     }
-
-
-
 }
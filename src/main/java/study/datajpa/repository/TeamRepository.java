@@ -1,8 +1,47 @@
 package study.datajpa.repository;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import study.datajpa.entity.Team;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 public interface TeamRepository extends JpaRepository<Team, Long> {
 
+    /**
+     * 컬렉션(Team.members) 페치 조인 + 페이징을 같이 쓰면 하이버네이트가 전체 조인 결과를 메모리에 올려서 페이징한다. (HHH000104)
+     * 그래서 두 단계로 나눈다.
+     * 1. 팀 id 만 DB 에서 페이징
+     * 2. 그 페이지의 팀들을 회원과 함께 IN 쿼리 한 번으로 조회
+     */
+    default Page<Team> findAllWithMembers(Pageable pageable) {
+        Page<Long> idPage = findIdPage(pageable);
+        if (idPage.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, idPage.getTotalElements());
+        }
+
+        Map<Long, Team> teamById = findWithMembersByIdIn(idPage.getContent()).stream()
+                .collect(Collectors.toMap(Team::getId, Function.identity()));
+        List<Team> teams = idPage.getContent().stream() // 1단계의 정렬 순서 유지
+                .map(teamById::get)
+                .collect(Collectors.toList());
+        return new PageImpl<>(teams, pageable, idPage.getTotalElements());
+    }
+
+    @Query(value = "select t.id from Team t", countQuery = "select count(t) from Team t")
+    Page<Long> findIdPage(Pageable pageable);
+
+    @QueryHints(@QueryHint(name = "hibernate.query.passDistinctThrough", value = "false")) // distinct 는 SQL 로 보내지 않고 엔티티 중복만 제거
+    @Query("select distinct t from Team t left join fetch t.members where t.id in :ids")
+    List<Team> findWithMembersByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,289 @@
+package study.datajpa.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Member.username 블룸 필터 (없는 username 조회를 DB 까지 보내지 않기 위함)
+ * 가입 가능 여부 확인, 스팸성 조회는 대부분 없는 username 이다. 필터에 없으면 '확실히 없음' -> DB 조회 생략 (UsernameLookupAspect)
+ * 필터에 있으면 '있을 수도 있음' -> 평소처럼 DB 조회 (거짓 양성 비율 = false-positive-rate)
+ *
+ * - 시작 시, 그리고 rebuild-interval 마다 DB 의 username 으로 다시 만든다. (삭제/변경 전 username 정리)
+ * - 그 사이에는 UsernameFilterListener 가 저장/username 변경이 커밋되면 추가한다.
+ * - 엔티티 리스너를 거치지 않는 Member 벌크 연산(BulkUpdateExecutor)은 끝나면 바로 다시 만든다.
+ *   username 을 새로 만드는 벌크 JPQL/네이티브 SQL 을 추가하면 put() 이나 rebuild() 를 호출해야 한다.
+ *   필터에 빠진 username 은 '확실히 없음'으로 판단되어 있는 회원을 못 찾는다. (거짓 음성)
+ * - 크기: expected-insertions 와 false-positive-rate 로 계산하되 max-memory 를 넘지 않는다. (넘으면 거짓 양성이 늘어난다)
+ * - 다시 만드는 동안 추가된 username 은 새 필터에도 넣는다.
+ *
+ * 애플리케이션 인스턴스 하나일 때만 쓴다. 다른 인스턴스가 저장한 username 은 이 인스턴스의 필터에 들어오지 않으므로
+ * 여러 인스턴스로 띄우면 datajpa.username-filter.enabled = false 로 끈다.
+ */
+@Slf4j
+@Component
+public class UsernameBloomFilter {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private final TransactionTemplate scanTransaction;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+    private final long maxBits;
+    private final boolean buildAsync;
+    private final boolean enabled;
+
+    private volatile Bits current;
+    private volatile Bits rebuilding;
+    private long lastRows;
+
+    private final LongAdder checks = new LongAdder();
+    private final LongAdder definiteMisses = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+
+    public UsernameBloomFilter(PlatformTransactionManager transactionManager,
+                               @Value("${datajpa.username-filter.expected-insertions:1000000}") long expectedInsertions,
+                               @Value("${datajpa.username-filter.false-positive-rate:0.01}") double falsePositiveRate,
+                               @Value("${datajpa.username-filter.max-memory:4MB}") DataSize maxMemory,
+                               @Value("${datajpa.username-filter.build-async:false}") boolean buildAsync,
+                               @Value("${datajpa.username-filter.enabled:true}") boolean enabled) {
+        // readOnly 로 하면 라우팅을 켰을 때 복제본을 읽는다. 복제 지연만큼 최근 username 이 빠지므로 원본에서 읽는다.
+        this.scanTransaction = new TransactionTemplate(transactionManager);
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.maxBits = maxMemory.toBytes() * 8;
+        this.buildAsync = buildAsync;
+        this.enabled = enabled;
+    }
+
+    /**
+     * @return false 면 확실히 없는 username. 아직 필터를 만들기 전이면 항상 true (DB 조회)
+     */
+    public boolean mightContain(String username) {
+        Bits bits = current;
+        if (bits == null || username == null) {
+            return true;
+        }
+        checks.increment();
+        boolean result = bits.mightContain(username);
+        if (!result) {
+            definiteMisses.increment();
+        }
+        return result;
+    }
+
+    public void put(String username) {
+        if (username == null) {
+            return;
+        }
+        // rebuild() 는 current = next 다음에 rebuilding = null 을 쓰므로 rebuilding 을 먼저 읽어야 둘 사이에 끼어도 새 필터에 들어간다.
+        Bits next = rebuilding;
+        Bits bits = current;
+        if (next != null) {
+            next.put(username);
+        }
+        if (bits != null && bits != next) {
+            bits.put(username);
+        }
+    }
+
+    /**
+     * 필터는 있다고 했지만 DB 에 없었던 경우 (거짓 양성 통계)
+     */
+    public void recordFalsePositive() {
+        falsePositives.increment();
+    }
+
+    /**
+     * build-async = true 면 별도 스레드에서 만든다. (전체 username 조회가 준비(ready)를 늦추지 않게, 그동안은 모두 DB 조회)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        if (!enabled) {
+            return;
+        }
+        if (!buildAsync) {
+            build();
+            return;
+        }
+        Thread thread = new Thread(this::build, "username-filter-build");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void build() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.warn("username 블룸 필터 생성 실패 -> 모든 조회를 DB 로 보낸다.", e);
+        }
+    }
+
+    /**
+     * 엔티티 리스너를 거치지 않고 username 이 바뀌었을 수 있을 때 (벌크 연산)
+     * 다시 만들지 못하면 필터를 버린다. (빠진 username 을 '없음'으로 판단하지 않게 모든 조회를 DB 로)
+     */
+    public void rebuildAfterBulkChange() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            current = null;
+            log.warn("벌크 연산 후 username 블룸 필터 재생성 실패 -> 다음 재생성까지 모든 조회를 DB 로 보낸다.", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${datajpa.username-filter.rebuild-interval:PT1H}",
+            initialDelayString = "${datajpa.username-filter.rebuild-interval:PT1H}")
+    public synchronized void rebuild() {
+        if (!enabled) {
+            return; // current 가 없으므로 모든 조회를 DB 로
+        }
+        long started = System.nanoTime();
+        // 조회 전에 rebuilding 부터 걸어둔다. 조회 시작 후 커밋된 username 이 새 필터에서 빠지지 않게
+        // 크기는 지난번 행 수로 잡는다. (그 사이 크게 늘었으면 다음 재생성에 반영)
+        Bits next = Bits.create(Math.max(expectedInsertions, lastRows * 2), falsePositiveRate, maxBits);
+        rebuilding = next;
+        long rows;
+        try {
+            rows = scanTransaction.execute(status -> {
+                try (Stream<String> usernames = em.createQuery("select m.username from Member m", String.class)
+                        .setHint(QueryHints.HINT_FETCH_SIZE, 1000)
+                        .getResultStream()) {
+                    long count = 0;
+                    for (Iterator<String> it = usernames.iterator(); it.hasNext(); count++) {
+                        next.put(it.next());
+                    }
+                    return count;
+                }
+            });
+            current = next;
+            lastRows = rows;
+        } finally {
+            rebuilding = null;
+        }
+        log.info("username 블룸 필터 재생성: {}건, {}KB, 해시 {}개, {}ms", rows, next.sizeInBits() / 8 / 1024,
+                next.hashCount, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        Bits bits = current;
+        stats.put("ready", bits != null);
+        if (bits != null) {
+            stats.put("bits", bits.sizeInBits());
+            stats.put("hashCount", bits.hashCount);
+            stats.put("bitsSet", bits.bitCount());
+            stats.put("expectedFalsePositiveRate", bits.expectedFalsePositiveRate());
+        }
+        long checked = checks.sum();
+        long misses = definiteMisses.sum();
+        long fp = falsePositives.sum();
+        stats.put("checks", checked);
+        stats.put("definiteMisses", misses); // DB 조회 생략
+        stats.put("falsePositives", fp);
+        stats.put("observedFalsePositiveRate", checked - misses == 0 ? 0.0 : (double) fp / (checked - misses));
+        return stats;
+    }
+
+    /**
+     * 비트 배열 + 이중 해싱 (h1 + i * h2)
+     */
+    static final class Bits {
+
+        private final AtomicLongArray words;
+        private final long bitSize;
+        private final int hashCount;
+
+        private Bits(long bitSize, int hashCount) {
+            this.words = new AtomicLongArray((int) ((bitSize + 63) / 64));
+            this.bitSize = (long) words.length() * 64;
+            this.hashCount = hashCount;
+        }
+
+        static Bits create(long expectedInsertions, double falsePositiveRate, long maxBits) {
+            long n = Math.max(1, expectedInsertions);
+            long optimalBits = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            long bits = Math.max(64, Math.min(optimalBits, Math.min(maxBits, (long) Integer.MAX_VALUE * 64)));
+            int hashes = Math.max(1, (int) Math.round((double) bits / n * Math.log(2)));
+            return new Bits(bits, hashes);
+        }
+
+        void put(String value) {
+            long hash1 = hash(value);
+            long hash2 = mix(hash1 ^ 0x9E3779B97F4A7C15L);
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Math.floorMod(hash1 + i * hash2, bitSize);
+                int index = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                if ((words.get(index) & mask) == 0) {
+                    words.getAndAccumulate(index, mask, (word, m) -> word | m);
+                }
+            }
+        }
+
+        boolean mightContain(String value) {
+            long hash1 = hash(value);
+            long hash2 = mix(hash1 ^ 0x9E3779B97F4A7C15L);
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Math.floorMod(hash1 + i * hash2, bitSize);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        long sizeInBits() {
+            return bitSize;
+        }
+
+        long bitCount() {
+            long count = 0;
+            for (int i = 0; i < words.length(); i++) {
+                count += Long.bitCount(words.get(i));
+            }
+            return count;
+        }
+
+        // 채워진 비트 비율로 추정한 현재 거짓 양성 비율
+        double expectedFalsePositiveRate() {
+            return Math.pow((double) bitCount() / bitSize, hashCount);
+        }
+
+        // FNV-1a 64 + murmur3 finalizer
+        private static long hash(String value) {
+            long hash = 0xcbf29ce484222325L;
+            for (int i = 0; i < value.length(); i++) {
+                hash ^= value.charAt(i);
+                hash *= 0x100000001b3L;
+            }
+            return mix(hash);
+        }
+
+        private static long mix(long hash) {
+            hash ^= hash >>> 33;
+            hash *= 0xff51afd7ed558ccdL;
+            hash ^= hash >>> 33;
+            hash *= 0xc4ceb9fe1a85ec53L;
+            hash ^= hash >>> 33;
+            return hash;
+        }
+    }
+}
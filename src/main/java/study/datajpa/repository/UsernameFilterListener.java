@@ -0,0 +1,38 @@
+package study.datajpa.repository;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.datajpa.entity.Member;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostUpdate;
+
+/**
+ * 저장/수정된 회원의 username 을 블룸 필터에 추가한다.
+ * 트랜잭션 안이면 커밋된 뒤에 추가한다. (롤백된 username 이 필터에 남지 않게)
+ * 변경 전 username 은 필터에서 지울 수 없으므로 다음 재생성까지 남는다. (거짓 양성일 뿐 결과는 틀리지 않음)
+ */
+public class UsernameFilterListener {
+
+    private final UsernameBloomFilter usernameBloomFilter;
+
+    public UsernameFilterListener(UsernameBloomFilter usernameBloomFilter) {
+        this.usernameBloomFilter = usernameBloomFilter;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void add(Member member) {
+        String username = member.getUsername();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            usernameBloomFilter.put(username);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                usernameBloomFilter.put(username);
+            }
+        });
+    }
+}
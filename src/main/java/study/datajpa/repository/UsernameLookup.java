@@ -0,0 +1,22 @@
+package study.datajpa.repository;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * username 으로 회원을 찾는 리포지토리 메서드
+ * UsernameBloomFilter 에 확실히 없는 username 이면 DB 를 조회하지 않고 빈 결과(Optional.empty(), 빈 List, null)를 돌려준다.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface UsernameLookup {
+
+    /**
+     * username 파라미터 위치
+     */
+    int parameterIndex() default 0;
+}
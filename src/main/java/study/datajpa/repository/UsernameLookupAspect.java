@@ -0,0 +1,70 @@
+package study.datajpa.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Optional;
+
+/**
+ * @UsernameLookup 메서드를 블룸 필터로 먼저 거른다.
+ *
+ * 쓰기 트랜잭션 안에서는 거르지 않는다.
+ * 아직 flush 하지 않은 저장/변경은 필터에 없으므로 (리스너는 flush 때 호출됨) 방금 저장한 회원을 못 찾을 수 있다.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class UsernameLookupAspect {
+
+    private final UsernameBloomFilter usernameBloomFilter;
+
+    // 스프링 데이터 리포지토리는 JDK 프록시라 인터페이스 메서드의 어노테이션을 직접 확인한다.
+    @Around("target(study.datajpa.repository.MemberRepository)")
+    public Object filter(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        UsernameLookup lookup = method.getAnnotation(UsernameLookup.class);
+        if (lookup == null || inWriteTransaction()) {
+            return joinPoint.proceed();
+        }
+
+        Object username = joinPoint.getArgs()[lookup.parameterIndex()];
+        if (username instanceof String && !usernameBloomFilter.mightContain((String) username)) {
+            return empty(method.getReturnType());
+        }
+
+        Object result = joinPoint.proceed();
+        if (username instanceof String && isEmpty(result)) {
+            usernameBloomFilter.recordFalsePositive();
+        }
+        return result;
+    }
+
+    private static boolean inWriteTransaction() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    private static Object empty(Class<?> returnType) {
+        if (Optional.class.equals(returnType)) {
+            return Optional.empty();
+        }
+        if (Collection.class.isAssignableFrom(returnType)) {
+            return Collections.emptyList();
+        }
+        return null;
+    }
+
+    private static boolean isEmpty(Object result) {
+        return result == null
+                || (result instanceof Optional && ((Optional<?>) result).isEmpty())
+                || (result instanceof Collection && ((Collection<?>) result).isEmpty());
+    }
+}
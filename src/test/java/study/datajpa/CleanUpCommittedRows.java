@@ -0,0 +1,24 @@
+package study.datajpa;
+
+import org.springframework.test.context.TestExecutionListeners;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 테스트가 커밋한 회원/팀/청크 기록을 테스트가 끝나면 지운다. (CommittedRowsCleanupListener)
+ * 공유 H2 에 커밋하는 테스트 클래스(@Rollback(false), 테스트 트랜잭션 없이 실행)는 모두 붙인다.
+ * 그래서 테스트는 다른 테스트가 남긴 행 없이 시작한다. (회원 전체를 대상으로 하는 조회도 그대로 검증할 수 있다)
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Inherited
+@TestExecutionListeners(listeners = CommittedRowsCleanupListener.class,
+        mergeMode = TestExecutionListeners.MergeMode.MERGE_WITH_DEFAULTS)
+public @interface CleanUpCommittedRows {
+}
@@ -0,0 +1,102 @@
+package study.datajpa;
+
+import org.hibernate.SessionFactory;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestContext;
+import org.springframework.test.context.support.AbstractTestExecutionListener;
+import study.datajpa.repository.CountCache;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 테스트가 커밋한 행 정리 (@CleanUpCommittedRows)
+ * 테스트 전에 있던 행의 id 를 기억해 두고, 테스트가 끝나면 새로 생긴 행만 지운다.
+ * 지운 뒤에는 2차 캐시와 count 캐시도 비운다. (JDBC 로 지우므로 하이버네이트는 모른다)
+ *
+ * TransactionalTestExecutionListener(4000) 보다 순서를 앞에 둔다.
+ * - beforeTestMethod: 테스트 트랜잭션 시작 전에 id 를 읽는다.
+ * - afterTestMethod: 역순으로 실행되므로 테스트 트랜잭션이 커밋/롤백된 뒤에 지운다.
+ */
+public class CommittedRowsCleanupListener extends AbstractTestExecutionListener {
+
+    private static final String SNAPSHOT = CommittedRowsCleanupListener.class.getName() + ".SNAPSHOT";
+
+    // 지우는 순서 (참조하는 쪽 먼저)
+    private enum Table {
+        MEMBER("member", "member_id"),
+        BULK_OPERATION_CHUNK("bulk_operation_chunk", "id"),
+        TEAM("team", "team_id");
+
+        private final String name;
+        private final String id;
+
+        Table(String name, String id) {
+            this.name = name;
+            this.id = id;
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        return 3000;
+    }
+
+    @Override
+    public void beforeTestMethod(TestContext testContext) {
+        JdbcTemplate jdbcTemplate = jdbcTemplate(testContext.getApplicationContext());
+        Map<Table, Set<Object>> snapshot = new EnumMap<>(Table.class);
+        for (Table table : Table.values()) {
+            snapshot.put(table, new HashSet<>(ids(jdbcTemplate, table)));
+        }
+        testContext.setAttribute(SNAPSHOT, snapshot);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void afterTestMethod(TestContext testContext) {
+        Map<Table, Set<Object>> snapshot = (Map<Table, Set<Object>>) testContext.removeAttribute(SNAPSHOT);
+        if (snapshot == null) {
+            return;
+        }
+        ApplicationContext applicationContext = testContext.getApplicationContext();
+        JdbcTemplate jdbcTemplate = jdbcTemplate(applicationContext);
+
+        boolean deleted = false;
+        for (Table table : Table.values()) {
+            List<Object[]> added = ids(jdbcTemplate, table).stream()
+                    .filter(id -> !snapshot.get(table).contains(id))
+                    .map(id -> new Object[]{id})
+                    .collect(Collectors.toCollection(ArrayList::new));
+            if (added.isEmpty()) {
+                continue;
+            }
+            if (table == Table.TEAM) { // 원래 있던 회원이 새 팀으로 옮겨졌을 수 있다.
+                jdbcTemplate.batchUpdate("update member set team_id = null where team_id = ?", added);
+            }
+            jdbcTemplate.batchUpdate("delete from " + table.name + " where " + table.id + " = ?", added);
+            deleted = true;
+        }
+
+        if (deleted) {
+            applicationContext.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getCache().evictAllRegions();
+            applicationContext.getBean(CountCache.class).invalidateAll();
+        }
+    }
+
+    private static JdbcTemplate jdbcTemplate(ApplicationContext applicationContext) {
+        return new JdbcTemplate(applicationContext.getBean(DataSource.class));
+    }
+
+    private static List<Object> ids(JdbcTemplate jdbcTemplate, Table table) {
+        return jdbcTemplate.queryForList("select " + table.id + " from " + table.name, Object.class);
+    }
+}
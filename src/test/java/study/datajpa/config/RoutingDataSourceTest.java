@@ -0,0 +1,126 @@
+package study.datajpa.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.CleanUpCommittedRows;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * 복제본 url 을 비워서 원본과 같은 H2 에 커넥션 풀만 둘 만든다. (복제 지연 0 인 복제본)
+ * 어느 풀로 갔는지는 datasource.routing 카운터로 확인
+ */
+@SpringBootTest(properties = {
+        "datajpa.datasource.routing.enabled=true",
+        "datajpa.datasource.routing.pin-after-write=10s"
+})
+@CleanUpCommittedRows
+class RoutingDataSourceTest {
+
+    @Autowired MemberRepository memberRepository;
+    @Autowired PlatformTransactionManager transactionManager;
+    @Autowired MeterRegistry meterRegistry;
+    @Autowired @Qualifier("queryExecutor") ThreadPoolTaskExecutor queryExecutor;
+    @Autowired EntityManagerFactory emf;
+
+    @AfterEach
+    public void clearPin() {
+        ReplicationRoutingDataSource.clearPin();
+    }
+
+    @Test
+    public void readOnlyToReplica() {
+        //when
+        double before = routed("replica");
+        memberRepository.findReadOnlyByUsername("routing");
+
+        //then
+        assertThat(routed("replica")).isEqualTo(before + 1);
+    }
+
+    @Test
+    public void pinToPrimaryAfterWrite() {
+        //given 쓰기 트랜잭션 커밋
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        double primaryBefore = routed("primary");
+        memberRepository.save(new Member("routingWrite", 10));
+        double primaryAfterWrite = routed("primary");
+        assertThat(primaryAfterWrite).isGreaterThan(primaryBefore);
+
+        //when 같은 스레드에서 바로 읽기
+        double replicaBefore = routed("replica");
+        Member findMember = readOnly.execute(status -> memberRepository.findReadOnlyByUsername("routingWrite"));
+
+        //then 복제 지연 대비 원본에서 읽는다.
+        assertThat(findMember).isNotNull();
+        assertThat(routed("replica")).isEqualTo(replicaBefore);
+        assertThat(routed("primary")).isEqualTo(primaryAfterWrite + 1);
+
+        //요청이 끝나면(고정 해제) 다시 복제본
+        ReplicationRoutingDataSource.clearPin();
+        readOnly.execute(status -> memberRepository.findReadOnlyByUsername("routingWrite"));
+        assertThat(routed("replica")).isEqualTo(replicaBefore + 1);
+    }
+
+    @Test
+    public void pinPropagatesToQueryExecutor() throws Exception {
+        //given 쓰기 트랜잭션 커밋
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        memberRepository.save(new Member("routingWrite", 10));
+
+        //when 보조 쿼리 스레드에서 읽기
+        double replicaBefore = routed("replica");
+        Member findMember = queryExecutor.submit(() ->
+                readOnly.execute(status -> memberRepository.findReadOnlyByUsername("routingWrite"))).get();
+
+        //then 요청 스레드의 고정을 따라 원본에서 읽는다.
+        assertThat(findMember).isNotNull();
+        assertThat(routed("replica")).isEqualTo(replicaBefore);
+    }
+
+    @Test
+    public void writeAfterReadOnlyOnSameEntityManager() {
+        //given open-in-view 처럼 EntityManager 하나를 스레드에 묶어두고 읽기 전용 트랜잭션부터
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        TransactionTemplate write = new TransactionTemplate(transactionManager);
+        EntityManager em = emf.createEntityManager();
+        TransactionSynchronizationManager.bindResource(emf, new EntityManagerHolder(em));
+        try {
+            double replicaBefore = routed("replica");
+            readOnly.execute(status -> memberRepository.findReadOnlyByUsername("routing"));
+            assertThat(routed("replica")).isEqualTo(replicaBefore + 1);
+
+            //when 같은 EntityManager 로 쓰기
+            double primaryBefore = routed("primary");
+            write.executeWithoutResult(status -> memberRepository.save(new Member("routingWrite", 10)));
+
+            //then 트랜잭션이 끝나면 커넥션을 반납하므로 쓰기는 원본 커넥션을 새로 얻는다.
+            assertThat(routed("primary")).isGreaterThan(primaryBefore);
+        } finally {
+            TransactionSynchronizationManager.unbindResource(emf);
+            EntityManagerFactoryUtils.closeEntityManager(em);
+        }
+    }
+
+    private double routed(String target) {
+        return meterRegistry.get(ReplicationRoutingDataSource.ROUTING).tag("target", target).counter().count();
+    }
+}
@@ -5,6 +5,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.Rollback;
 import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.CleanUpCommittedRows;
 import study.datajpa.repository.MemberRepository;
 
 import javax.persistence.EntityManager;
@@ -17,6 +18,7 @@ import static org.junit.jupiter.api.Assertions.*;
 @SpringBootTest
 @Transactional
 @Rollback(value = false)
+@CleanUpCommittedRows
 class MemberTest {
 
     @PersistenceContext
@@ -0,0 +1,38 @@
+package study.datajpa.monitor;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.HealthEndpointGroups;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * fast-startup 프로필과 같은 deferred 부트스트랩 + readiness 그룹으로 확인한다.
+ * (프로필 자체는 ddl-auto=validate 라 스키마가 미리 있어야 하므로 필요한 설정만 가져온다)
+ */
+@SpringBootTest(properties = {
+        "spring.data.jpa.repositories.bootstrap-mode=deferred",
+        "management.endpoint.health.probes.enabled=true",
+        "management.endpoint.health.group.readiness.include=readinessState, jpaReadiness",
+        "datajpa.username-filter.build-async=true"
+})
+class JpaReadinessHealthIndicatorTest {
+
+    @Autowired JpaReadinessHealthIndicator jpaReadinessHealthIndicator;
+    @Autowired HealthEndpointGroups healthEndpointGroups;
+
+    @Test
+    public void upAfterJpaReady() throws Exception {
+        //when 준비 확인은 별도 스레드에서 진행
+        for (int i = 0; i < 50 && !jpaReadinessHealthIndicator.isReady(); i++) {
+            Thread.sleep(100);
+        }
+
+        //then
+        assertThat(jpaReadinessHealthIndicator.health().getStatus()).isEqualTo(Status.UP);
+        assertThat(jpaReadinessHealthIndicator.health().getDetails()).containsKey("readyAfterMs");
+        assertThat(healthEndpointGroups.get("readiness").isMember("jpaReadiness")).isTrue();
+    }
+}
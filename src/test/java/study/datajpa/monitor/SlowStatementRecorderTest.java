@@ -0,0 +1,62 @@
+package study.datajpa.monitor;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.datajpa.CleanUpCommittedRows;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * 모든 SQL 을 느린 SQL 로 보도록 기준 시간을 0 으로 둔다.
+ * EXPLAIN 은 다른 커넥션에서 실행되므로 테스트 트랜잭션(@Transactional) 없이 커밋된 데이터로 확인한다.
+ */
+@SpringBootTest(properties = "datajpa.slow-statements.threshold=0ms")
+@CleanUpCommittedRows
+class SlowStatementRecorderTest {
+
+    @Autowired SlowStatementRecorder slowStatementRecorder;
+    @Autowired MemberRepository memberRepository;
+    @Autowired DataSource dataSource;
+
+    @Test
+    public void explainSlowStatement() throws Exception {
+        //given
+        memberRepository.save(new Member("slowSql", 10));
+        slowStatementRecorder.clear();
+
+        //when
+        memberRepository.findByUsername("slowSql");
+
+        //then 파라미터 값이 들어간 SQL, 행 수, 실행 계획
+        SlowStatementRecorder.SlowStatement slow = slowStatementRecorder.getStatements().stream()
+                .filter(statement -> statement.getSql().contains("'slowSql'"))
+                .findFirst()
+                .orElseThrow();
+        assertThat(slow.getRows()).isEqualTo(1);
+        assertThat(slow.getCaller()).startsWith("SlowStatementRecorderTest.explainSlowStatement");
+
+        for (int i = 0; i < 50 && slow.getPlan() == null; i++) {
+            Thread.sleep(100);
+        }
+        assertThat(slow.getPlan()).containsIgnoringCase("member");
+    }
+
+    @Test
+    public void statementCloseWithoutResultSetClose() throws Exception {
+        //when ResultSet 은 닫지 않고 Statement 만 닫는다.
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.executeQuery("select 1");
+        }
+
+        //then 행 수를 세던 항목이 남지 않는다.
+        assertThat(slowStatementRecorder.pendingFetches()).isZero();
+    }
+}
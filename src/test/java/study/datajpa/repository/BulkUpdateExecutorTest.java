@@ -0,0 +1,83 @@
+package study.datajpa.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.CleanUpCommittedRows;
+import study.datajpa.entity.BulkOperationChunk;
+import study.datajpa.entity.Member;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * 청크마다 커밋하므로 테스트 트랜잭션(@Transactional) 없이 실행한다.
+ */
+@SpringBootTest
+@CleanUpCommittedRows
+class BulkUpdateExecutorTest {
+
+    @Autowired BulkUpdateExecutor bulkUpdateExecutor;
+    @Autowired MemberRepository memberRepository;
+    @Autowired TransactionTemplate transactionTemplate;
+    @PersistenceContext
+    EntityManager em;
+
+    @Test
+    public void chunkedBulkUpdate() {
+        //given
+        List<Member> members = saveMembers("chunk", 25);
+
+        //when
+        BulkUpdateResult result = bulkUpdateExecutor.execute(agePlus("chunk-age-plus", "chunk", 2));
+
+        //then
+        assertThat(result.getRowsUpdated()).isEqualTo(25);
+        assertThat(result.getSkippedChunks()).isZero();
+        assertThat(memberRepository.findById(members.get(0).getId()).get().getAge()).isEqualTo(11);
+    }
+
+    @Test
+    public void resumeSkipsCompletedChunks() {
+        //given
+        List<Member> members = saveMembers("resume", 5);
+        long chunkSize = 1000;
+        long firstChunkStart = Math.floorDiv(members.get(0).getId(), chunkSize) * chunkSize;
+        // 이전 실행에서 첫 청크까지 완료되고 실패했다고 가정
+        transactionTemplate.executeWithoutResult(status ->
+                em.persist(new BulkOperationChunk("resume-age-plus", firstChunkStart, 0)));
+
+        //when
+        BulkUpdateResult result = bulkUpdateExecutor.execute(agePlus("resume-age-plus", "resume", 1));
+
+        //then
+        assertThat(result.getSkippedChunks()).isGreaterThanOrEqualTo(1);
+        assertThat(memberRepository.findById(members.get(0).getId()).get().getAge()).isEqualTo(10); // 건너뛴 청크는 그대로
+    }
+
+    private BulkUpdate agePlus(String name, String usernamePrefix, int parallelism) {
+        return BulkUpdate.builder()
+                .name(name)
+                .entityClass(Member.class)
+                .jpql("update Member m set m.age = m.age + 1" +
+                        " where m.username like :prefix and m.id between :fromId and :toId")
+                .parameter("prefix", usernamePrefix + "%")
+                .chunkSize(1000)
+                .parallelism(parallelism)
+                .build();
+    }
+
+    private List<Member> saveMembers(String usernamePrefix, int count) {
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            members.add(new Member(usernamePrefix + i, 10));
+        }
+        memberRepository.saveAllBatched(members);
+        return members;
+    }
+}
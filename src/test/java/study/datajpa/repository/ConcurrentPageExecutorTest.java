@@ -0,0 +1,69 @@
+package study.datajpa.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.CleanUpCommittedRows;
+import study.datajpa.entity.Member;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * count 를 다른 커넥션에서 동시에 실행하는 경로는 쓰기 트랜잭션 밖에서만 타므로 테스트 트랜잭션(@Transactional) 없이 실행한다.
+ */
+@SpringBootTest(properties = "datajpa.paging.concurrent-count=true")
+@CleanUpCommittedRows
+class ConcurrentPageExecutorTest {
+
+    private static final int AGE = 77; // 다른 테스트 데이터와 겹치지 않는 나이
+
+    @Autowired MemberRepository memberRepository;
+    @Autowired PlatformTransactionManager transactionManager;
+
+    @Test
+    public void concurrentCountWithoutTransaction() {
+        //given
+        saveMembers(5);
+        PageRequest firstPage = PageRequest.of(0, 3, Sort.by(Sort.Direction.DESC, "username"));
+
+        //when count 는 queryExecutor 의 다른 커넥션에서
+        Page<Member> first = memberRepository.findByAgeConcurrentCount(AGE, firstPage);
+
+        //then
+        assertThat(first.getContent()).extracting("username").containsExactly("concurrentPage5", "concurrentPage4", "concurrentPage3");
+        assertThat(first.getTotalElements()).isEqualTo(5);
+        assertThat(first.getTotalPages()).isEqualTo(2);
+    }
+
+    @Test
+    public void concurrentCountInReadOnlyTransaction() {
+        //given
+        saveMembers(5);
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        //when
+        Page<Member> first = readOnly.execute(status ->
+                memberRepository.findByAgeConcurrentCount(AGE, PageRequest.of(0, 2, Sort.by("username"))));
+
+        //then
+        assertThat(first.getContent()).extracting("username").containsExactly("concurrentPage1", "concurrentPage2");
+        assertThat(first.getTotalElements()).isEqualTo(5);
+    }
+
+    private void saveMembers(int count) {
+        List<Member> members = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            members.add(new Member("concurrentPage" + i, AGE));
+        }
+        memberRepository.saveAll(members);
+    }
+}
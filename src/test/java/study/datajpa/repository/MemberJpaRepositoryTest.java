@@ -6,6 +6,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.Rollback;
 import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.CleanUpCommittedRows;
 import study.datajpa.entity.Member;
 
 import java.util.List;
@@ -16,6 +17,7 @@ import static org.assertj.core.api.Assertions.*;
 @SpringBootTest
 @Transactional
 @Rollback(value = false)
+@CleanUpCommittedRows
 class MemberJpaRepositoryTest {
 
     @Autowired MemberJpaRepository memberJpaRepository;
@@ -115,6 +117,25 @@ class MemberJpaRepositoryTest {
         assertThat(totalCount).isEqualTo(5);
     }
 
+    @Test
+    public void pagingKeyset() {
+        //given
+        memberJpaRepository.save(new Member("member1", 10));
+        memberJpaRepository.save(new Member("member2", 10));
+        memberJpaRepository.save(new Member("member3", 10));
+        memberJpaRepository.save(new Member("member4", 10));
+        memberJpaRepository.save(new Member("member5", 10));
+
+        //when
+        List<Member> firstPage = memberJpaRepository.findByPageAfter(10, null, null, 3);
+        Member lastSeen = firstPage.get(firstPage.size() - 1);
+        List<Member> secondPage = memberJpaRepository.findByPageAfter(10, lastSeen.getUsername(), lastSeen.getId(), 3);
+
+        //then
+        assertThat(firstPage).extracting("username").containsExactly("member5", "member4", "member3");
+        assertThat(secondPage).extracting("username").containsExactly("member2", "member1");
+    }
+
     @Test
     public void bulkUpdate() {
         //given
@@ -0,0 +1,71 @@
+package study.datajpa.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.datajpa.CleanUpCommittedRows;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * chunk 를 queryExecutor 에서 동시에 조회하는 경로는 쓰기 트랜잭션 밖에서만 타므로 테스트 트랜잭션(@Transactional) 없이 실행한다.
+ * chunk-size 를 작게 해서 여러 chunk 로 나뉘게 한다.
+ */
+@SpringBootTest(properties = {
+        "datajpa.multi-get.chunk-size=2",
+        "datajpa.multi-get.parallel=true"
+})
+@CleanUpCommittedRows
+class MemberMultiGetRepositoryTest {
+
+    @Autowired MemberRepository memberRepository;
+    @Autowired TeamRepository teamRepository;
+
+    private final List<Member> members = new ArrayList<>();
+
+    @Test
+    public void findAllByIdInOrderAcrossChunks() {
+        //given
+        saveMembers(5);
+        Long missingId = -1L;
+
+        //when chunk 3개 (2, 2, 1), 중복과 없는 id 포함
+        List<Member> result = memberRepository.findAllByIdInOrder(List.of(
+                id(4), id(0), missingId, id(2), id(4), id(3), id(1)));
+
+        //then 입력 순서 그대로, 중복은 한 번, 없는 id 는 빠진다.
+        assertThat(result).extracting("username")
+                .containsExactly("multiChunk4", "multiChunk0", "multiChunk2", "multiChunk3", "multiChunk1");
+        assertThat(result).extracting(member -> member.getTeam().getName()).containsOnly("multiChunkTeam"); // fetch join
+    }
+
+    @Test
+    public void findAllByUsernameInOrderAcrossChunks() {
+        //given
+        saveMembers(5);
+
+        //when
+        List<Member> result = memberRepository.findAllByUsernameInOrder(List.of(
+                "multiChunk3", "multiChunk1", "multiChunk4", "no-such-user", "multiChunk0"));
+
+        //then
+        assertThat(result).extracting("username")
+                .containsExactly("multiChunk3", "multiChunk1", "multiChunk4", "multiChunk0");
+    }
+
+    private void saveMembers(int count) {
+        Team team = teamRepository.save(new Team("multiChunkTeam"));
+        for (int i = 0; i < count; i++) {
+            members.add(memberRepository.save(new Member("multiChunk" + i, 10, team)));
+        }
+    }
+
+    private Long id(int index) {
+        return members.get(index).getId();
+    }
+}
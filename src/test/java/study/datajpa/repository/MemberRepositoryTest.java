@@ -1,22 +1,45 @@
 package study.datajpa.repository;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.assertj.core.api.Assertions;
+import org.hibernate.FlushMode;
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.test.annotation.Rollback;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.CleanUpCommittedRows;
+import study.datajpa.dto.CountedPage;
 import study.datajpa.dto.MemberDto;
+import study.datajpa.dto.PageCustom;
+import study.datajpa.entity.AuditingContext;
 import study.datajpa.entity.Member;
 import study.datajpa.entity.Team;
+import study.datajpa.monitor.IndexAdvisor;
+import study.datajpa.monitor.ReadOnlyQueryReport;
+import study.datajpa.monitor.RepositoryMetricsAspect;
+import study.datajpa.monitor.StatementCounter;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.*;
@@ -24,10 +47,17 @@ import static org.junit.jupiter.api.Assertions.*;
 @SpringBootTest
 @Transactional
 @Rollback(value = false)
+@CleanUpCommittedRows
 class MemberRepositoryTest {
 
     @Autowired MemberRepository memberRepository;
     @Autowired TeamRepository teamRepository;
+    @Autowired StatementCounter statementCounter;
+    @Autowired MeterRegistry meterRegistry;
+    @Autowired IndexAdvisor indexAdvisor;
+    @Autowired UsernameBloomFilter usernameBloomFilter;
+    @Autowired ReadOnlyQueryReport readOnlyQueryReport;
+    @Autowired PlatformTransactionManager transactionManager;
     @PersistenceContext
     EntityManager em;
 
@@ -220,6 +250,91 @@ class MemberRepositoryTest {
         assertThat(page.hasNext()).isTrue(); //다음 페이지가 있는가?
     }
 
+    @Test
+    public void pagingConcurrentCount() {
+        //given
+        for (int i = 1; i <= 5; i++) {
+            memberRepository.save(new Member("concurrent" + i, 33));
+        }
+        PageRequest firstPage = PageRequest.of(0, 3, Sort.by(Sort.Direction.DESC, "username"));
+        PageRequest lastPage = PageRequest.of(1, 3, Sort.by(Sort.Direction.DESC, "username"));
+
+        //when
+        Page<Member> first = memberRepository.findByAgeConcurrentCount(33, firstPage);
+        Page<Member> last = memberRepository.findByAgeConcurrentCount(33, lastPage); // 덜 찬 마지막 페이지 -> count 없이 전체 개수 추론
+
+        //then
+        assertThat(first.getContent()).extracting("username").containsExactly("concurrent5", "concurrent4", "concurrent3");
+        assertThat(first.getTotalElements()).isEqualTo(5);
+        assertThat(last.getContent()).hasSize(2);
+        assertThat(last.getTotalElements()).isEqualTo(5);
+    }
+
+    @Test
+    public void keysetPaging() {
+        //given
+        memberRepository.save(new Member("member1", 10));
+        memberRepository.save(new Member("member2", 10));
+        memberRepository.save(new Member("member3", 10));
+        memberRepository.save(new Member("member4", 10));
+        memberRepository.save(new Member("member5", 10));
+
+        //when
+        PageCustom<Member> first = memberRepository.findKeysetByUsername(null, 2);
+        PageCustom<Member> second = memberRepository.findKeysetByUsername(first.getPageableCustom().getNextCursor(), 2);
+        PageCustom<Member> last = memberRepository.findKeysetByUsername(second.getPageableCustom().getNextCursor(), 2);
+        PageCustom<Member> back = memberRepository.findKeysetByUsername(last.getPageableCustom().getPreviousCursor(), 2);
+
+        //then
+        assertThat(first.getContent()).extracting("username").containsExactly("member1", "member2");
+        assertThat(first.getPageableCustom().isFirst()).isTrue();
+        assertThat(second.getContent()).extracting("username").containsExactly("member3", "member4");
+        assertThat(last.getContent()).extracting("username").containsExactly("member5");
+        assertThat(last.getPageableCustom().isHasNext()).isFalse();
+        assertThat(back.getContent()).extracting("username").containsExactly("member3", "member4");
+        assertThat(back.getPageableCustom().getPreviousCursor()).isNotNull();
+    }
+
+    @Test
+    public void pagingCachedCount() {
+        //given
+        memberRepository.save(new Member("member1", 10));
+        memberRepository.save(new Member("member2", 10));
+        memberRepository.save(new Member("member3", 10));
+        PageRequest pageRequest = PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "username"));
+
+        //when
+        CountedPage<Member> page = memberRepository.findAllCachedCount(pageRequest);
+        memberRepository.save(new Member("member4", 10)); // 저장 시 count 캐시 무효화
+        CountedPage<Member> afterSave = memberRepository.findAllCachedCount(pageRequest);
+
+        //then
+        assertThat(page.getContent()).extracting("username").containsExactly("member3", "member2");
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        assertThat(page.isTotalExact()).isTrue();
+        assertThat(afterSave.getTotalElements()).isEqualTo(4);
+    }
+
+    @Test
+    public void pagingMemberDto() {
+        //given
+        Team teamA = new Team("teamA");
+        teamRepository.save(teamA);
+        memberRepository.save(new Member("member1", 10, teamA));
+        memberRepository.save(new Member("member2", 10, teamA));
+        memberRepository.save(new Member("member3", 10));
+        em.flush();
+        em.clear();
+
+        //when
+        PageRequest pageRequest = PageRequest.of(0, 2, Sort.by(Sort.Direction.ASC, "username"));
+        CountedPage<MemberDto> page = memberRepository.findMemberDtoCachedCount(pageRequest);
+
+        //then
+        assertThat(page.getContent()).extracting("username").containsExactly("member1", "member2");
+        assertThat(page.getContent()).extracting("teamName").containsOnly("teamA"); // 팀 이름도 한 번의 쿼리로
+    }
+
     @Test
     public void bulkUpdate() {
         //given
@@ -241,6 +356,227 @@ class MemberRepositoryTest {
         assertThat(resultCount).isEqualTo(3);
     }
 
+    @Test
+    public void saveAllBatched() {
+        //given
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            members.add(new Member("batch" + i, i));
+        }
+
+        //when
+        int savedCount = memberRepository.saveAllBatched(members);
+
+        //then
+        assertThat(savedCount).isEqualTo(250);
+        assertThat(members).allMatch(m -> m.getId() != null);
+        assertThat(em.contains(members.get(0))).isFalse(); // flush 후 detach 로 영속성 컨텍스트에서 빠짐
+        assertThat(memberRepository.findByUsername("batch249")).hasSize(1);
+    }
+
+    @Test
+    public void saveAllBatchedKeepsCallerEntitiesManaged() {
+        //given 바깥 트랜잭션이 먼저 들고 있는 엔티티
+        Team team = teamRepository.save(new Team("batchOuterTeam"));
+
+        //when
+        memberRepository.saveAllBatched(List.of(new Member("batchOuter", 10)));
+
+        //then 저장한 회원만 detach, 바깥 엔티티는 영속 상태 유지
+        assertThat(em.contains(team)).isTrue();
+    }
+
+    @Test
+    public void saveAssignedId() {
+        //given 식별자를 미리 할당한 새 엔티티 (import, 복제)
+        Member member = new Member("assigned", 10);
+        member.setId(900_000_001L);
+
+        //when
+        try (StatementCounter.Scope scope = statementCounter.open()) {
+            Member saved = memberRepository.save(member);
+            em.flush();
+
+            //then merge(SELECT + INSERT) 가 아니라 persist(INSERT) 한 번
+            assertThat(saved).isSameAs(member);
+            assertThat(scope.getCount()).isEqualTo(1);
+        }
+        assertThat(member.isNew()).isFalse();
+        assertThat(member.getId()).isEqualTo(900_000_001L);
+    }
+
+    @Test
+    public void deleteRightAfterSave() {
+        //given 저장만 하고 아직 flush 전 (INSERT 전)
+        Member member = memberRepository.save(new Member("saveThenDelete", 10));
+        assertThat(member.isNew()).isFalse(); // persist() 할 때 version 이 채워진다.
+
+        //when 중간에 쿼리 없이 바로 삭제
+        memberRepository.delete(member);
+        em.flush();
+        em.clear();
+
+        //then
+        assertThat(memberRepository.findById(member.getId())).isEmpty();
+    }
+
+    @Test
+    public void uninitializedReferenceIsNotNew() {
+        //given
+        Team team = teamRepository.save(new Team("lazyRefTeam"));
+        Member member = memberRepository.save(new Member("lazyRefMember", 10, team));
+        em.flush();
+        em.clear();
+
+        //when 아직 로딩 전인 참조 (바이트코드 향상 빌드에서는 프록시 대신 엔티티 자체)
+        Team reference = memberRepository.findById(member.getId()).get().getTeam();
+        assertThat(Hibernate.isInitialized(reference)).isFalse();
+
+        //then @PostLoad 가 돌지 않았어도 version 을 읽으면서 초기화되므로 기존 엔티티
+        assertThat(reference.isNew()).isFalse();
+        memberRepository.delete(member);
+        teamRepository.delete(reference);
+        em.flush();
+        em.clear();
+        assertThat(teamRepository.findById(team.getId())).isEmpty();
+    }
+
+    @Test
+    public void auditingPerTransaction() throws InterruptedException {
+        //given
+        Member member1 = new Member("audit1", 10);
+        Member member2 = new Member("audit2", 20);
+        Member member3 = new Member("audit3", 30);
+
+        //when 같은 트랜잭션, flush 없이 시간 차를 두고 저장
+        memberRepository.save(member1);
+        Thread.sleep(5);
+        memberRepository.save(member2);
+        try (AuditingContext.Suspension ignored = AuditingContext.suspend()) {
+            memberRepository.save(member3); // 대량 작업처럼 Auditing 끄기
+        }
+        em.flush();
+
+        //then 등록자는 트랜잭션마다 한 번, 시각은 저장한 때
+        assertThat(member1.getCreatedBy()).isNotNull().isEqualTo(member2.getCreatedBy());
+        assertThat(member2.getCreatedDate()).isAfter(member1.getCreatedDate());
+        assertThat(member3.getCreatedDate()).isNull();
+        assertThat(member3.getCreatedBy()).isNull();
+    }
+
+    @Test
+    public void auditorSurvivesRequiresNew() {
+        //given
+        String outer = AuditingContext.currentAuditor().orElseThrow();
+        TransactionTemplate requiresNew = new TransactionTemplate(transactionManager);
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        //when 안쪽 트랜잭션이 시작하고 끝난다.
+        String inner = requiresNew.execute(status -> AuditingContext.currentAuditor().orElseThrow());
+
+        //then 바깥 트랜잭션의 등록자는 그대로
+        assertThat(inner).isNotEqualTo(outer);
+        assertThat(AuditingContext.currentAuditor()).contains(outer);
+    }
+
+    @Test
+    public void repositoryMetrics() {
+        //given
+        memberRepository.save(new Member("metrics1", 10));
+        memberRepository.save(new Member("metrics1", 20));
+
+        //when
+        memberRepository.findByUsername("metrics1");
+
+        //then 리포지토리 메서드별 실행 시간, 반환 행 수
+        Timer timer = meterRegistry.get(RepositoryMetricsAspect.INVOCATIONS)
+                .tag("repository", "MemberRepository")
+                .tag("method", "findByUsername")
+                .timer();
+        assertThat(timer.count()).isGreaterThanOrEqualTo(1);
+        assertThat(meterRegistry.get(RepositoryMetricsAspect.ROWS)
+                .tag("repository", "MemberRepository")
+                .tag("method", "findByUsername")
+                .summary().max()).isGreaterThanOrEqualTo(2);
+    }
+
+    @Test
+    public void indexAdvisor() throws Exception {
+        //when
+        List<IndexAdvisor.Advice> advices = indexAdvisor.advise();
+
+        //then username 조건은 idx_member_username_id 로 커버, age 조건(bulkAgePlus)은 인덱스 없음
+        assertThat(advices)
+                .filteredOn(advice -> advice.getColumns().get(0).equals("username"))
+                .isNotEmpty()
+                .allMatch(IndexAdvisor.Advice::isCovered);
+        assertThat(advices)
+                .filteredOn(advice -> advice.getColumns().get(0).equals("age"))
+                .extracting(IndexAdvisor.Advice::isCovered)
+                .containsOnly(false);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // 쓰기 트랜잭션 안에서는 필터를 쓰지 않으므로 트랜잭션 밖에서 확인
+    public void usernameBloomFilter() {
+        //given
+        memberRepository.save(new Member("bloomMember", 10)); // 커밋되면 리스너가 필터에 추가
+        long missesBefore = (long) usernameBloomFilter.getStats().get("definiteMisses");
+
+        //when
+        Optional<Member> found = memberRepository.findOptionalByUsername("bloomMember");
+        Optional<Member> notFound = memberRepository.findOptionalByUsername("bloom-no-such-user");
+        Member notFoundMember = memberRepository.findMemberByUsername("bloom-no-such-user");
+
+        //then
+        assertThat(usernameBloomFilter.mightContain("bloomMember")).isTrue();
+        assertThat(found).isPresent();
+        assertThat(notFound).isEmpty();
+        assertThat(notFoundMember).isNull();
+        assertThat((long) usernameBloomFilter.getStats().get("definiteMisses")).isGreaterThan(missesBefore); // DB 조회 생략
+    }
+
+    @Test
+    public void multiGetInInputOrder() {
+        //given
+        Team teamA = new Team("teamA");
+        teamRepository.save(teamA);
+        Member member1 = memberRepository.save(new Member("multi1", 10, teamA));
+        Member member2 = memberRepository.save(new Member("multi2", 20));
+        Member member3 = memberRepository.save(new Member("multi3", 30));
+        em.flush();
+        em.clear();
+
+        //when 입력 순서 그대로, 중복/없는 id 는 제외
+        List<Member> byIds = memberRepository.findAllByIdInOrder(
+                Arrays.asList(member3.getId(), -1L, member1.getId(), member3.getId(), member2.getId()));
+        List<Member> byUsernames = memberRepository.findAllByUsernameInOrder(Arrays.asList("multi2", "multi1"));
+
+        //then
+        assertThat(byIds).extracting("username").containsExactly("multi3", "multi1", "multi2");
+        assertThat(Hibernate.isInitialized(byIds.get(1).getTeam())).isTrue(); // 팀 fetch join
+        assertThat(byUsernames).extracting("username").containsExactly("multi2", "multi1");
+    }
+
+    @Test
+    public void streamMemberDto() {
+        //given
+        Team teamA = new Team("teamA");
+        teamRepository.save(teamA);
+        memberRepository.save(new Member("member1", 10, teamA));
+        memberRepository.save(new Member("member2", 20));
+
+        //when
+        List<MemberDto> result;
+        try (Stream<MemberDto> stream = memberRepository.streamMemberDto()) {
+            result = stream.filter(dto -> dto.getUsername().startsWith("member"))
+                    .collect(Collectors.toList());
+        }
+
+        //then
+        assertThat(result).extracting("teamName").contains("teamA", null);
+    }
+
     @Test
     public void findMemberLazy() {
         //given
@@ -264,15 +600,41 @@ class MemberRepositoryTest {
         //select Member 1
 //        List<Member> members = memberRepository.findAll();
 //        List<Member> members = memberRepository.findMemberFetchJoin();
-        List<Member> members = memberRepository.findEntityGraphByUsername("member1");
+        try (StatementCounter.Scope scope = statementCounter.open()) {
+            List<Member> members = memberRepository.findEntityGraphByUsername("member1");
+
 
+            for (Member member : members) {
+                System.out.println("member = " + member.getUsername());
+                System.out.println("member.teamClass = " + member.getTeam().getClass());
+                System.out.println("member.team = " + member.getTeam().getName());
+            }
 
-        for (Member member : members) {
-            System.out.println("member = " + member.getUsername());
-            System.out.println("member.teamClass = " + member.getTeam().getClass());
-            System.out.println("member.team = " + member.getTeam().getName());
+            scope.assertAtMost(2); // 엔티티 그래프로 팀까지 한 번에 조회 -> N+1 없음
         }
+    }
 
+    @Test
+    public void teamPagingWithMembers() {
+        //given
+        Team teamA = new Team("pageTeamA");
+        Team teamB = new Team("pageTeamB");
+        Team teamC = new Team("pageTeamC");
+        teamRepository.saveAll(Arrays.asList(teamA, teamB, teamC));
+        memberRepository.save(new Member("member1", 10, teamA));
+        memberRepository.save(new Member("member2", 10, teamA));
+        memberRepository.save(new Member("member3", 10, teamB));
+        em.flush();
+        em.clear();
+
+        //when
+        Page<Team> page = teamRepository.findAllWithMembers(PageRequest.of(0, 2, Sort.by("name")));
+
+        //then
+        assertThat(page.getContent()).hasSize(2);
+        for (Team team : page.getContent()) {
+            assertThat(Hibernate.isInitialized(team.getMembers())).isTrue(); // 팀 목록 조회 시 회원도 함께 로딩
+        }
     }
 
     @Test
@@ -297,6 +659,66 @@ class MemberRepositoryTest {
         em.flush(); //변경감지 작동하지 않음.
     }
 
+    @Test
+    public void readOnlyQuery() {
+        //given
+        memberRepository.save(new Member("readOnly1", 10));
+        em.flush();
+        em.clear();
+        Session session = em.unwrap(Session.class);
+
+        //when
+        Member findMember = memberRepository.findReadOnlyByUsername("readOnly1");
+
+        //then 조회한 엔티티는 읽기 전용, 호출이 끝나면 세션 설정은 원래대로
+        assertThat(session.isReadOnly(findMember)).isTrue();
+        assertThat(session.isDefaultReadOnly()).isFalse();
+        assertThat(session.getHibernateFlushMode()).isEqualTo(FlushMode.AUTO);
+        assertThat(readOnlyQueryReport.report().get(ReadOnlyQueryReport.Kind.READ_ONLY_QUERY))
+                .contains("MemberRepository.findReadOnlyByUsername", "MemberRepository.findMemberCustom");
+    }
+
+    @Test
+    public void secondLevelCache() {
+        //given
+        Member member1 = new Member("member1", 10);
+        memberRepository.save(member1);
+        em.flush();
+        em.clear();
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        //when
+        memberRepository.findById(member1.getId()); // DB 조회 후 2차 캐시에 저장
+        em.clear(); // 1차 캐시만 비움
+        memberRepository.findById(member1.getId()); // 2차 캐시에서 조회
+
+        //then
+        CacheRegionStatistics region = statistics.getDomainDataRegionStatistics(Member.class.getName());
+        assertThat(region.getHitCount()).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    public void teamMembersCacheEvictedOnTeamChange() {
+        //given 팀 A 의 members 컬렉션을 2차 캐시에 올려둔다.
+        Team teamA = teamRepository.save(new Team("cacheTeamA"));
+        Team teamB = teamRepository.save(new Team("cacheTeamB"));
+        Member member = memberRepository.save(new Member("cacheMover", 10, teamA));
+        em.flush();
+        em.clear();
+        assertThat(teamRepository.findById(teamA.getId()).get().getMembers()).hasSize(1);
+        em.clear();
+
+        //when 연관관계 주인 쪽만 바꾼다. (이전 팀 목록에서 빼지 않음)
+        memberRepository.findById(member.getId()).get().setTeam(em.find(Team.class, teamB.getId()));
+        em.flush();
+        em.clear();
+
+        //then 캐시된 목록이 아니라 바뀐 DB 기준
+        assertThat(teamRepository.findById(teamA.getId()).get().getMembers()).isEmpty();
+        assertThat(teamRepository.findById(teamB.getId()).get().getMembers()).extracting("username").containsExactly("cacheMover");
+    }
+
     @Test
     public void lock() {
 
@@ -342,6 +764,29 @@ class MemberRepositoryTest {
         Assertions.assertThat(result.size()).isEqualTo(1);
     }
 
+    @Test
+    public void specCompiledCache() {
+        //given
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        em.persist(new Member("spec1", 0, teamA));
+        em.persist(new Member("spec2", 0, teamA));
+        em.flush();
+        em.clear();
+        double hitsBefore = meterRegistry.counter("member.spec.cache", "result", "hit").count();
+
+        //when 같은 모양(username and teamName), 다른 값
+        List<Member> first = memberRepository.findAll(MemberSpec.username("spec1").and(MemberSpec.teamName("teamA")));
+        List<Member> second = memberRepository.findAll(MemberSpec.username("spec2").and(MemberSpec.teamName("teamA")));
+        List<Member> teamOnly = memberRepository.findAll(MemberSpec.username("spec2").and(MemberSpec.teamName(""))); // 빈 조건은 무시
+
+        //then
+        assertThat(first).extracting("username").containsExactly("spec1");
+        assertThat(second).extracting("username").containsExactly("spec2");
+        assertThat(teamOnly).extracting("username").containsExactly("spec2");
+        assertThat(meterRegistry.counter("member.spec.cache", "result", "hit").count()).isGreaterThan(hitsBefore);
+    }
+
     /**
      * 장점
      * 동적 쿼리를 편리하게 처리
@@ -0,0 +1,63 @@
+package study.datajpa.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.CleanUpCommittedRows;
+import study.datajpa.entity.Member;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * 재시도마다 새 트랜잭션을 커밋하므로 테스트 트랜잭션(@Transactional) 없이 실행한다.
+ */
+@SpringBootTest
+@CleanUpCommittedRows
+class OptimisticRetryExecutorTest {
+
+    @Autowired OptimisticRetryExecutor optimisticRetryExecutor;
+    @Autowired MemberRepository memberRepository;
+    @Autowired PlatformTransactionManager transactionManager;
+
+    @Test
+    public void retryOnOptimisticLock() {
+        //given
+        Member member = memberRepository.save(new Member("optimistic", 10));
+        Long id = member.getId();
+        TransactionTemplate concurrentTransaction = new TransactionTemplate(transactionManager);
+        concurrentTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        AtomicInteger attempts = new AtomicInteger();
+
+        //when 첫 시도 중에 다른 트랜잭션이 같은 회원을 먼저 수정하고 커밋
+        optimisticRetryExecutor.run(() -> {
+            Member findMember = memberRepository.findById(id).get();
+            if (attempts.incrementAndGet() == 1) {
+                concurrentTransaction.executeWithoutResult(status -> {
+                    Member other = memberRepository.findById(id).get();
+                    other.setAge(other.getAge() + 100);
+                });
+            }
+            findMember.setAge(findMember.getAge() + 1);
+        });
+
+        //then 충돌 -> 다시 읽어서 두 변경 모두 반영
+        Member result = memberRepository.findById(id).get();
+        assertThat(attempts.get()).isEqualTo(2);
+        assertThat(result.getAge()).isEqualTo(111);
+        assertThat(result.getVersion()).isEqualTo(2L);
+    }
+
+    @Test
+    public void notInsideTransaction() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(status ->
+                optimisticRetryExecutor.run(() -> { })))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}